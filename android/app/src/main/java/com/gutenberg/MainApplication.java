@@ -17,6 +17,7 @@ import com.facebook.soloader.SoLoader;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 public class MainApplication extends Application implements ReactApplication {
 
@@ -39,6 +40,13 @@ public class MainApplication extends Application implements ReactApplication {
                 @Override
                 public void responseHtml(String title, String html, boolean changed) {}
 
+                @Override
+                public void contentChanged(String title, List<String> blockOrder, Map<String, String> changedBlocks,
+                                           boolean changed) {}
+
+                @Override
+                public void contentDirty() {}
+
                 @Override
                 public void requestMediaPickFromMediaLibrary(MediaSelectedCallback mediaSelectedCallback) {}
 
@@ -9,6 +9,10 @@ jest.mock( '../react-native-gutenberg-bridge', () => {
 		subscribeUpdateHtml: jest.fn(),
 		subscribeMediaAppend: jest.fn(),
 		editorDidMount: jest.fn(),
+		provideHtmlToNative: jest.fn(),
+		notifyContentDirtyToNative: jest.fn(),
+		provideContentChangeToNative: jest.fn(),
+		fetchHtmlTransfer: jest.fn(),
 	};
 } );
 
@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -12,17 +14,38 @@ class ReactAztecBackspaceEvent extends Event<ReactAztecBackspaceEvent> {
 
   private static final String EVENT_NAME = "topTextInputBackspace";
 
+  private static final Pools.SynchronizedPool<ReactAztecBackspaceEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
   private String mText;
   private int mSelectionStart;
   private int mSelectionEnd;
 
-  public ReactAztecBackspaceEvent(int viewId, String text, int selectionStart, int selectionEnd) {
-    super(viewId);
+  private ReactAztecBackspaceEvent() {
+  }
+
+  public static ReactAztecBackspaceEvent obtain(int viewId, String text, int selectionStart, int selectionEnd) {
+    ReactAztecBackspaceEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ReactAztecBackspaceEvent();
+    }
+    event.init(viewId, text, selectionStart, selectionEnd);
+    return event;
+  }
+
+  private void init(int viewId, String text, int selectionStart, int selectionEnd) {
+    super.init(viewId);
     mText = text;
     mSelectionStart = selectionStart;
     mSelectionEnd = selectionEnd;
   }
 
+  @Override
+  public void onDispose() {
+    mText = null;
+    EVENTS_POOL.release(this);
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
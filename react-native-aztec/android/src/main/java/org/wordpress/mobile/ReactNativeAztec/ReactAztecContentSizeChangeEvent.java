@@ -0,0 +1,68 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.support.v4.util.Pools;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Event emitted by Aztec native view when the size of its content changes. Same payload as the
+ * ReactContentSizeChangedEvent of TextInput, but pooled since it goes out on every layout that changes the size.
+ */
+class ReactAztecContentSizeChangeEvent extends Event<ReactAztecContentSizeChangeEvent> {
+
+  private static final String EVENT_NAME = "topContentSizeChange";
+
+  private static final Pools.SynchronizedPool<ReactAztecContentSizeChangeEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
+  private float mContentWidth;
+  private float mContentHeight;
+
+  private ReactAztecContentSizeChangeEvent() {
+  }
+
+  public static ReactAztecContentSizeChangeEvent obtain(int viewId, float contentWidth, float contentHeight) {
+    ReactAztecContentSizeChangeEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ReactAztecContentSizeChangeEvent();
+    }
+    event.init(viewId, contentWidth, contentHeight);
+    return event;
+  }
+
+  private void init(int viewId, float contentWidth, float contentHeight) {
+    super.init(viewId);
+    mContentWidth = contentWidth;
+    mContentHeight = contentHeight;
+  }
+
+  @Override
+  public void onDispose() {
+    EVENTS_POOL.release(this);
+  }
+
+  @Override
+  public String getEventName() {
+    return EVENT_NAME;
+  }
+
+  @Override
+  public void dispatch(RCTEventEmitter rctEventEmitter) {
+    rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
+  }
+
+  private WritableMap serializeEventData() {
+    WritableMap eventData = Arguments.createMap();
+
+    WritableMap contentSize = Arguments.createMap();
+    contentSize.putDouble("width", mContentWidth);
+    contentSize.putDouble("height", mContentHeight);
+    eventData.putMap("contentSize", contentSize);
+
+    eventData.putInt("target", getViewTag());
+    return eventData;
+  }
+}
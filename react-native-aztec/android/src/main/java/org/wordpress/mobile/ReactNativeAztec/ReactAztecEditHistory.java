@@ -0,0 +1,370 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.os.SystemClock;
+import android.text.Editable;
+import android.text.NoCopySpan;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextWatcher;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Native undo/redo history of an Aztec view, kept as reversible text operations instead of full HTML snapshots:
+ * the start of the edit, the text it removed and the text it inserted, both with their spans. The spans reaching
+ * into the edited range (e.g. a bold span shrunk by a deletion) are recorded with their range before and after
+ * the edit, so undo and redo bring their exact extent back. Its memory use is
+ * proportional to the edits made, and is capped by a byte budget. The oldest operations are dropped past it.
+ *
+ * Consecutive typing (or deleting) within a short delay is grouped, so it's undone in one step. Changes of the
+ * spans alone (e.g. toggling bold on a selection) don't go through the TextWatcher and are not recorded.
+ * Replacing the whole content (e.g. setting the text from JS) clears the history, see
+ * {@link #beginUntrackedChange()}.
+ */
+class ReactAztecEditHistory implements TextWatcher {
+
+    // Rough cost of an operation and of each copied span, on top of the chars themselves
+    private static final int OPERATION_OVERHEAD_BYTES = 64;
+    private static final int SPAN_OVERHEAD_BYTES = 32;
+    private static final long TYPING_GROUP_TIMEOUT_MS = 1000;
+
+    private static final SpanRecord[] NO_SPANS = new SpanRecord[0];
+
+    private static class SpanRecord {
+        final Object span;
+        final int start;
+        final int end;
+        final int flags;
+
+        SpanRecord(Object span, int start, int end, int flags) {
+            this.span = span;
+            this.start = start;
+            this.end = end;
+            this.flags = flags;
+        }
+    }
+
+    private static class Operation {
+        final int start;
+        final CharSequence removed;
+        final CharSequence inserted;
+        // Spans reaching into the edited range, as they were before and after the edit
+        final SpanRecord[] spansBefore;
+        final SpanRecord[] spansAfter;
+        final int group;
+        final int bytes;
+
+        Operation(int start, CharSequence removed, CharSequence inserted, SpanRecord[] spansBefore,
+                  SpanRecord[] spansAfter, int group) {
+            this.start = start;
+            this.removed = removed;
+            this.inserted = inserted;
+            this.spansBefore = spansBefore;
+            this.spansAfter = spansAfter;
+            this.group = group;
+            this.bytes = OPERATION_OVERHEAD_BYTES + sizeOf(removed) + sizeOf(inserted)
+                    + (spansBefore.length + spansAfter.length) * SPAN_OVERHEAD_BYTES;
+        }
+    }
+
+    private final ArrayDeque<Operation> mUndoOperations = new ArrayDeque<>();
+    private final ArrayDeque<Operation> mRedoOperations = new ArrayDeque<>();
+    private int mByteBudget;
+    private int mBytes = 0;
+
+    private int mGroup = 0;
+    private long mLastEditTime = 0;
+    private int mLastEditStart = -1;
+    private int mLastEditEnd = -1;
+    private boolean mLastEditWasInsertion = false;
+
+    // Text removed by the change in progress and the spans around it, captured in beforeTextChanged
+    private CharSequence mPendingRemoved;
+    private SpanRecord[] mPendingSpans = NO_SPANS;
+    private int mPendingStart = -1;
+    private int mChangeDepth = 0;
+    private boolean mHasNestedChange = false;
+    private int mUntrackedChangeDepth = 0;
+
+    ReactAztecEditHistory(int byteBudget) {
+        mByteBudget = byteBudget;
+    }
+
+    void setByteBudget(int byteBudget) {
+        mByteBudget = byteBudget;
+        trimToBudget();
+    }
+
+    int getByteCount() {
+        return mBytes;
+    }
+
+    boolean canUndo() {
+        return !mUndoOperations.isEmpty();
+    }
+
+    boolean canRedo() {
+        return !mRedoOperations.isEmpty();
+    }
+
+    void clear() {
+        mUndoOperations.clear();
+        mRedoOperations.clear();
+        mBytes = 0;
+        mPendingRemoved = null;
+        mPendingSpans = NO_SPANS;
+        mPendingStart = -1;
+        mChangeDepth = 0;
+        mHasNestedChange = false;
+        breakGroup();
+    }
+
+    /**
+     * The content is about to be replaced in a way the history can't follow (e.g. parsed from HTML).
+     * Nothing is recorded until {@link #endUntrackedChange()}, which clears the history.
+     */
+    void beginUntrackedChange() {
+        mUntrackedChangeDepth++;
+    }
+
+    void endUntrackedChange() {
+        mUntrackedChangeDepth--;
+        if (mUntrackedChangeDepth == 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Revert the latest group of operations.
+     *
+     * @return the offset to put the cursor at, or -1 if there was nothing to undo
+     */
+    int undo(Editable text) {
+        Operation operation = mUndoOperations.peekLast();
+        if (operation == null) {
+            return -1;
+        }
+
+        int group = operation.group;
+        int cursor = -1;
+        beginApplying();
+        try {
+            while ((operation = mUndoOperations.peekLast()) != null && operation.group == group) {
+                if (operation.start + operation.inserted.length() > text.length()) {
+                    // the content changed behind our back, nothing in here can be trusted anymore
+                    clear();
+                    return -1;
+                }
+                mUndoOperations.pollLast();
+                text.replace(operation.start, operation.start + operation.inserted.length(), operation.removed);
+                restoreSpans(text, operation.spansBefore);
+                mRedoOperations.addLast(operation);
+                cursor = operation.start + operation.removed.length();
+            }
+        } finally {
+            endApplying();
+        }
+        return cursor;
+    }
+
+    /**
+     * Apply again the latest group of undone operations.
+     *
+     * @return the offset to put the cursor at, or -1 if there was nothing to redo
+     */
+    int redo(Editable text) {
+        Operation operation = mRedoOperations.peekLast();
+        if (operation == null) {
+            return -1;
+        }
+
+        int group = operation.group;
+        int cursor = -1;
+        beginApplying();
+        try {
+            while ((operation = mRedoOperations.peekLast()) != null && operation.group == group) {
+                if (operation.start + operation.removed.length() > text.length()) {
+                    clear();
+                    return -1;
+                }
+                mRedoOperations.pollLast();
+                text.replace(operation.start, operation.start + operation.removed.length(), operation.inserted);
+                restoreSpans(text, operation.spansAfter);
+                mUndoOperations.addLast(operation);
+                cursor = operation.start + operation.inserted.length();
+            }
+        } finally {
+            endApplying();
+        }
+        return cursor;
+    }
+
+    private void beginApplying() {
+        mUntrackedChangeDepth++;
+    }
+
+    private void endApplying() {
+        mUntrackedChangeDepth--;
+        // typing right after an undo or a redo starts a new group
+        breakGroup();
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        if (mUntrackedChangeDepth > 0) {
+            return;
+        }
+        mChangeDepth++;
+        if (mChangeDepth > 1) {
+            // A watcher changed the text while another change was being notified. Operations can't be told
+            // apart reliably anymore, see onTextChanged().
+            mHasNestedChange = true;
+            return;
+        }
+        mPendingRemoved = copy(s, start, start + count);
+        mPendingSpans = captureSpans(s, start, start + count);
+        mPendingStart = start;
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+        if (mUntrackedChangeDepth > 0 || mChangeDepth == 0) {
+            return;
+        }
+        mChangeDepth--;
+        if (mChangeDepth > 0) {
+            return;
+        }
+
+        CharSequence removed = mPendingRemoved;
+        SpanRecord[] spansBefore = mPendingSpans;
+        mPendingRemoved = null;
+        mPendingSpans = NO_SPANS;
+        if (mHasNestedChange || removed == null || start != mPendingStart) {
+            clear();
+            return;
+        }
+
+        record(start, removed, copy(s, start, start + count), spansBefore, captureSpans(s, start, start + count));
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+    }
+
+    private void record(int start, CharSequence removed, CharSequence inserted, SpanRecord[] spansBefore,
+                        SpanRecord[] spansAfter) {
+        if (removed.length() == 0 && inserted.length() == 0) {
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        boolean isInsertion = removed.length() == 0;
+        boolean isDeletion = inserted.length() == 0;
+        boolean continuesTyping = now - mLastEditTime < TYPING_GROUP_TIMEOUT_MS
+                && ((isInsertion && mLastEditWasInsertion && start == mLastEditEnd
+                        && !containsNewline(inserted))
+                || (isDeletion && !mLastEditWasInsertion && start + removed.length() == mLastEditStart));
+        if (!continuesTyping) {
+            mGroup++;
+        }
+        mLastEditTime = now;
+        mLastEditStart = start;
+        mLastEditEnd = start + inserted.length();
+        mLastEditWasInsertion = isInsertion;
+
+        // a new edit forks the history
+        for (Operation operation : mRedoOperations) {
+            mBytes -= operation.bytes;
+        }
+        mRedoOperations.clear();
+
+        Operation operation = new Operation(start, removed, inserted, spansBefore, spansAfter, mGroup);
+        mUndoOperations.addLast(operation);
+        mBytes += operation.bytes;
+        trimToBudget();
+    }
+
+    private void trimToBudget() {
+        while (mBytes > mByteBudget && !mUndoOperations.isEmpty()) {
+            mBytes -= mUndoOperations.pollFirst().bytes;
+        }
+        while (mBytes > mByteBudget && !mRedoOperations.isEmpty()) {
+            mBytes -= mRedoOperations.pollFirst().bytes;
+        }
+    }
+
+    private void breakGroup() {
+        mLastEditTime = 0;
+        mLastEditStart = -1;
+        mLastEditEnd = -1;
+    }
+
+    private static boolean containsNewline(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy of the given range along with its spans. NoCopySpans (selection, watchers) are left out by
+     * SpannableStringBuilder, and the composing spans of the keyboard must not come back on undo either.
+     */
+    private static CharSequence copy(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return "";
+        }
+        if (!(text instanceof Spanned)) {
+            return text.subSequence(start, end).toString();
+        }
+        SpannableStringBuilder copy = new SpannableStringBuilder(text, start, end);
+        for (Object span : copy.getSpans(0, copy.length(), Object.class)) {
+            if ((copy.getSpanFlags(span) & Spanned.SPAN_COMPOSING) != 0) {
+                copy.removeSpan(span);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Ranges of the spans in or touching [start, end). SpannableStringBuilder.replace() doesn't put back a span that
+     * is still in the text, only setSpan() can bring back the range it had.
+     */
+    private static SpanRecord[] captureSpans(CharSequence text, int start, int end) {
+        if (!(text instanceof Spanned)) {
+            return NO_SPANS;
+        }
+        Spanned spanned = (Spanned) text;
+        Object[] spans = spanned.getSpans(start, end, Object.class);
+        SpanRecord[] records = new SpanRecord[spans.length];
+        int count = 0;
+        for (Object span : spans) {
+            int flags = spanned.getSpanFlags(span);
+            if (span instanceof NoCopySpan || (flags & Spanned.SPAN_COMPOSING) != 0) {
+                continue;
+            }
+            records[count++] = new SpanRecord(span, spanned.getSpanStart(span), spanned.getSpanEnd(span), flags);
+        }
+        return count == 0 ? NO_SPANS : Arrays.copyOf(records, count);
+    }
+
+    private static void restoreSpans(Editable text, SpanRecord[] records) {
+        for (SpanRecord record : records) {
+            if (record.end <= text.length()) {
+                text.setSpan(record.span, record.start, record.end, record.flags);
+            }
+        }
+    }
+
+    private static int sizeOf(CharSequence text) {
+        int bytes = text.length() * 2;
+        if (text instanceof Spanned) {
+            bytes += ((Spanned) text).getSpans(0, text.length(), Object.class).length * SPAN_OVERHEAD_BYTES;
+        }
+        return bytes;
+    }
+}
@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -13,15 +15,36 @@ class ReactAztecEndEditingEvent extends Event<ReactAztecEndEditingEvent> {
 
   private static final String EVENT_NAME = "topEndEditing";
 
+  private static final Pools.SynchronizedPool<ReactAztecEndEditingEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
   private String mText;
 
-  public ReactAztecEndEditingEvent(
+  private ReactAztecEndEditingEvent() {
+  }
+
+  public static ReactAztecEndEditingEvent obtain(
       int viewId,
       String text) {
-    super(viewId);
+    ReactAztecEndEditingEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ReactAztecEndEditingEvent();
+    }
+    event.init(viewId, text);
+    return event;
+  }
+
+  private void init(int viewId, String text) {
+    super.init(viewId);
     mText = text;
   }
 
+  @Override
+  public void onDispose() {
+    mText = null;
+    EVENTS_POOL.release(this);
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
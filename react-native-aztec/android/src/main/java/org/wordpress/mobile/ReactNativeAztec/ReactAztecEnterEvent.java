@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -12,19 +14,41 @@ class ReactAztecEnterEvent extends Event<ReactAztecEnterEvent> {
 
   private static final String EVENT_NAME = "topTextInputEnter";
 
+  private static final Pools.SynchronizedPool<ReactAztecEnterEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
   private String mText;
   private int mSelectionStart;
   private int mSelectionEnd;
   private int mEventCount;
 
-  public ReactAztecEnterEvent(int viewId, String text, int selectionStart, int selectionEnd, int eventCount) {
-    super(viewId);
+  private ReactAztecEnterEvent() {
+  }
+
+  public static ReactAztecEnterEvent obtain(int viewId, String text, int selectionStart, int selectionEnd,
+                                            int eventCount) {
+    ReactAztecEnterEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ReactAztecEnterEvent();
+    }
+    event.init(viewId, text, selectionStart, selectionEnd, eventCount);
+    return event;
+  }
+
+  private void init(int viewId, String text, int selectionStart, int selectionEnd, int eventCount) {
+    super.init(viewId);
     mText = text;
     mSelectionStart = selectionStart;
     mSelectionEnd = selectionEnd;
     mEventCount = eventCount;
   }
 
+  @Override
+  public void onDispose() {
+    mText = null;
+    EVENTS_POOL.release(this);
+  }
+
   @Override
   public String getEventName() {
     return EVENT_NAME;
@@ -0,0 +1,77 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.view.View;
+
+/**
+ * Holds back one type of event of an Aztec view according to a policy set from JS, and emits the latest state
+ * once the policy allows it. Policies, as received from the `*Throttle` props:
+ * <ul>
+ *     <li>{@link #IMMEDIATE}: every request emits right away</li>
+ *     <li>{@link #PER_FRAME}: at most once per frame, see {@link ReactAztecFrameScheduler}</li>
+ *     <li>any positive value: at most once every that many milliseconds, trailing</li>
+ * </ul>
+ * Subclasses build the event out of the current state of the view in {@link #emit()}, so requesting is cheap and
+ * the intermediate states are never serialized.
+ */
+abstract class ReactAztecEventThrottle extends ReactAztecFrameScheduler.FrameTask implements Runnable {
+
+    static final int IMMEDIATE = 0;
+    static final int PER_FRAME = -1;
+
+    private final View mView;
+    private boolean mIsPending = false;
+    private boolean mIsTimerPosted = false;
+
+    ReactAztecEventThrottle(View view) {
+        mView = view;
+    }
+
+    abstract void emit();
+
+    void request(int policy) {
+        if (policy == IMMEDIATE) {
+            // supersedes whatever was pending
+            cancel();
+            emit();
+            return;
+        }
+
+        mIsPending = true;
+        if (policy < 0) {
+            ReactAztecFrameScheduler.getInstance().schedule(this);
+        } else if (!mIsTimerPosted) {
+            mIsTimerPosted = true;
+            mView.postDelayed(this, policy);
+        }
+    }
+
+    /**
+     * Emit right away if something is pending. Used where JS must be up to date, e.g. before a blur or Enter event.
+     */
+    void flush() {
+        if (mIsPending) {
+            cancel();
+            emit();
+        }
+    }
+
+    void cancel() {
+        mIsPending = false;
+        ReactAztecFrameScheduler.getInstance().cancel(this);
+        if (mIsTimerPosted) {
+            mIsTimerPosted = false;
+            mView.removeCallbacks(this);
+        }
+    }
+
+    @Override
+    void doFrame() {
+        flush();
+    }
+
+    @Override
+    public void run() {
+        mIsTimerPosted = false;
+        flush();
+    }
+}
@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -12,8 +14,24 @@ class ReactAztecFocusEvent extends Event<ReactAztecFocusEvent> {
 
   private static final String EVENT_NAME = "topFocus";
 
-  public ReactAztecFocusEvent(int viewId) {
-    super(viewId);
+  private static final Pools.SynchronizedPool<ReactAztecFocusEvent> EVENTS_POOL =
+      new Pools.SynchronizedPool<>(3);
+
+  private ReactAztecFocusEvent() {
+  }
+
+  public static ReactAztecFocusEvent obtain(int viewId) {
+    ReactAztecFocusEvent event = EVENTS_POOL.acquire();
+    if (event == null) {
+      event = new ReactAztecFocusEvent();
+    }
+    event.init(viewId);
+    return event;
+  }
+
+  @Override
+  public void onDispose() {
+    EVENTS_POOL.release(this);
   }
 
   @Override
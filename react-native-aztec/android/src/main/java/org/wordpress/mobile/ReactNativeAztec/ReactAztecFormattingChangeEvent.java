@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
@@ -13,11 +15,37 @@ class ReactAztecFormattingChangeEvent extends Event<ReactAztecFormattingChangeEv
 
     private static final String EVENT_NAME = "topFormatsChanges";
 
+    // Orders the events so that coalescing is last-wins even when they share the same timestamp
+    private static int sSequence = 0;
+
+    private static final Pools.SynchronizedPool<ReactAztecFormattingChangeEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(4);
+
     private String[] mFormats;
+    private int mSequence;
+
+    private ReactAztecFormattingChangeEvent() {
+    }
+
+    public static ReactAztecFormattingChangeEvent obtain(int viewId, String[] formats) {
+        ReactAztecFormattingChangeEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new ReactAztecFormattingChangeEvent();
+        }
+        event.init(viewId, formats);
+        return event;
+    }
 
-    public ReactAztecFormattingChangeEvent(int viewId, String[] formats) {
-        super(viewId);
+    private void init(int viewId, String[] formats) {
+        super.init(viewId);
         this.mFormats = formats;
+        this.mSequence = ++sSequence;
+    }
+
+    @Override
+    public void onDispose() {
+        mFormats = null;
+        EVENTS_POOL.release(this);
     }
 
     @Override
@@ -27,7 +55,18 @@ class ReactAztecFormattingChangeEvent extends Event<ReactAztecFormattingChangeEv
 
     @Override
     public boolean canCoalesce() {
-        return false;
+        // Only the newest set of formats is of interest to JS
+        return true;
+    }
+
+    @Override
+    public short getCoalescingKey() {
+        return 0;
+    }
+
+    @Override
+    public ReactAztecFormattingChangeEvent coalesce(ReactAztecFormattingChangeEvent otherEvent) {
+        return mSequence - otherEvent.mSequence >= 0 ? this : otherEvent;
     }
 
     @Override
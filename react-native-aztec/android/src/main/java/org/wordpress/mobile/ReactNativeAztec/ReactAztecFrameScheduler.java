@@ -0,0 +1,84 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.UiThreadUtil;
+
+import java.util.ArrayList;
+
+/**
+ * Main thread scheduler, shared by all the Aztec views, that runs tasks aligned with the next frame.
+ *
+ * A task scheduled several times before the frame runs only once, so it can be used to debounce work
+ * (e.g. content size reports) to at most once per frame, without spawning any thread.
+ */
+class ReactAztecFrameScheduler implements Choreographer.FrameCallback {
+
+    abstract static class FrameTask {
+        private boolean mIsScheduled = false;
+
+        abstract void doFrame();
+
+        boolean isScheduled() {
+            return mIsScheduled;
+        }
+    }
+
+    private static @Nullable ReactAztecFrameScheduler sInstance;
+
+    private final Choreographer mChoreographer;
+    private ArrayList<FrameTask> mPendingTasks = new ArrayList<>();
+    private ArrayList<FrameTask> mRunningTasks = new ArrayList<>();
+    private boolean mIsFrameCallbackPosted = false;
+
+    private ReactAztecFrameScheduler() {
+        mChoreographer = Choreographer.getInstance();
+    }
+
+    static ReactAztecFrameScheduler getInstance() {
+        UiThreadUtil.assertOnUiThread();
+        if (sInstance == null) {
+            sInstance = new ReactAztecFrameScheduler();
+        }
+        return sInstance;
+    }
+
+    void schedule(FrameTask task) {
+        UiThreadUtil.assertOnUiThread();
+        if (task.mIsScheduled) {
+            return;
+        }
+        task.mIsScheduled = true;
+        mPendingTasks.add(task);
+        if (!mIsFrameCallbackPosted) {
+            mIsFrameCallbackPosted = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    void cancel(FrameTask task) {
+        UiThreadUtil.assertOnUiThread();
+        if (task.mIsScheduled) {
+            task.mIsScheduled = false;
+            mPendingTasks.remove(task);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mIsFrameCallbackPosted = false;
+
+        // Swap the lists, so tasks scheduled while running end up in the next frame
+        ArrayList<FrameTask> tasks = mPendingTasks;
+        mPendingTasks = mRunningTasks;
+        mRunningTasks = tasks;
+
+        for (int i = 0; i < tasks.size(); i++) {
+            FrameTask task = tasks.get(i);
+            task.mIsScheduled = false;
+            task.doFrame();
+        }
+        tasks.clear();
+    }
+}
@@ -8,6 +8,7 @@ import android.text.Editable;
 import android.text.TextUtils;
 import android.text.TextWatcher;
 import android.util.Log;
+import android.util.LruCache;
 import android.util.TypedValue;
 import android.view.View;
 
@@ -15,6 +16,7 @@ import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.SimpleViewManager;
@@ -28,25 +30,10 @@ import com.facebook.react.views.scroll.ScrollEvent;
 import com.facebook.react.views.scroll.ScrollEventType;
 import com.facebook.react.views.text.DefaultStyleValuesUtil;
 import com.facebook.react.views.text.ReactFontManager;
-import com.facebook.react.views.textinput.ReactContentSizeChangedEvent;
-import com.facebook.react.views.textinput.ReactTextChangedEvent;
-import com.facebook.react.views.textinput.ReactTextInputEvent;
 import com.facebook.react.views.textinput.ReactTextInputManager;
 import com.facebook.react.views.textinput.ScrollWatcher;
 
-import org.wordpress.aztec.glideloader.GlideImageLoader;
-import org.wordpress.aztec.glideloader.GlideVideoThumbnailLoader;
-import org.wordpress.aztec.plugins.CssUnderlinePlugin;
-import org.wordpress.aztec.plugins.shortcodes.AudioShortcodePlugin;
-import org.wordpress.aztec.plugins.shortcodes.CaptionShortcodePlugin;
-import org.wordpress.aztec.plugins.shortcodes.VideoShortcodePlugin;
-import org.wordpress.aztec.plugins.wpcomments.HiddenGutenbergPlugin;
-import org.wordpress.aztec.plugins.wpcomments.WordPressCommentsPlugin;
-import org.wordpress.aztec.plugins.wpcomments.toolbar.MoreToolbarButton;
-
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.Arrays;
 
 public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
@@ -56,6 +43,16 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
     private static final int BLUR_TEXT_INPUT = 2;
     private static final int UNSET = -1;
 
+    private static final int TYPEFACE_CACHE_SIZE = 16;
+    // Keyed by font family and Typeface style, see updateTypefaceIfNeeded()
+    private static final LruCache<String, Typeface> sTypefaceCache = new LruCache<>(TYPEFACE_CACHE_SIZE);
+
+    // Aztec specific commands, kept well clear of the TextInput codes we mirror below
+    private static final int REQUEST_TEXT_SNAPSHOT = 100;
+    private static final int UNDO = 101;
+    private static final int REDO = 102;
+    private static final int CLEAR_HISTORY = 103;
+
     // we define the same codes in ReactAztecText as they have for ReactNative's TextInput, so
     // it's easier to handle focus between Aztec and TextInput instances on the same screen.
     // see https://github.com/wordpress-mobile/react-native-aztec/pull/79
@@ -66,8 +63,38 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
     private static final String BLOCK_TYPE_TAG_KEY = "tag";
 
+    private final ReactAztecViewPool mViewPool;
+    private final @Nullable OnTextChangeListener mOnTextChangeListener;
+
+    /**
+     * Told about the text changes the user makes, on the UI thread, as they happen and before JS gets to know
+     * about them.
+     */
+    public interface OnTextChangeListener {
+        void onTextChange();
+    }
+
     public ReactAztecManager() {
+        this(0);
+    }
+
+    public ReactAztecManager(int viewPoolPrewarmCount) {
+        this(viewPoolPrewarmCount, null);
+    }
+
+    /**
+     * @param viewPoolPrewarmCount number of Aztec views to build ahead of time, during idle time, once the first
+     *                             one has been mounted. See {@link ReactAztecViewPool}.
+     */
+    public ReactAztecManager(int viewPoolPrewarmCount, @Nullable OnTextChangeListener onTextChangeListener) {
+        mOnTextChangeListener = onTextChangeListener;
         initializeFocusAndBlurCommandCodes();
+        mViewPool = new ReactAztecViewPool(new ReactAztecViewPool.ViewFactory() {
+            @Override
+            public ReactAztecText newViewInstance(ThemedReactContext reactContext) {
+                return ReactAztecManager.this.newViewInstance(reactContext);
+            }
+        }, ReactAztecViewPool.DEFAULT_MAX_SIZE, viewPoolPrewarmCount);
     }
 
     private void initializeFocusAndBlurCommandCodes() {
@@ -87,6 +114,30 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
     @Override
     protected ReactAztecText createViewInstance(ThemedReactContext reactContext) {
+        return mViewPool.acquire(reactContext);
+    }
+
+    @Override
+    public void onDropViewInstance(ReactAztecText view) {
+        super.onDropViewInstance(view);
+        mViewPool.release(view);
+    }
+
+    /**
+     * RN doesn't tell view managers about it, {@link ReactAztecPackage} does. Called off the UI thread.
+     */
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                mViewPool.clear();
+            }
+        });
+    }
+
+    private ReactAztecText newViewInstance(ThemedReactContext reactContext) {
         ReactAztecText aztecText = new ReactAztecText(reactContext);
         aztecText.setFocusableInTouchMode(true);
         aztecText.setFocusable(true);
@@ -119,11 +170,6 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
                         MapBuilder.of(
                                 "phasedRegistrationNames",
                                 MapBuilder.of("bubbled", "onEndEditing", "captured", "onEndEditingCapture")))
-                .put(
-                        "topTextInput",
-                        MapBuilder.of(
-                                "phasedRegistrationNames",
-                                MapBuilder.of("bubbled", "onTextInput", "captured", "onTextInputCapture")))
                 .put(
                         "topTextInputEnter",
                         MapBuilder.of(
@@ -168,6 +214,24 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
     @ReactProp(name = "text")
     public void setText(ReactAztecText view, ReadableMap inputMap) {
+        // Applied in onAfterUpdateTransaction, so the props that change how HTML gets parsed (e.g. the plugins
+        // added by disableGutenbergMode) are in place before the first parse, whatever order the props come in.
+        view.pendingTextFromJS = inputMap;
+    }
+
+    @Override
+    protected void onAfterUpdateTransaction(ReactAztecText view) {
+        super.onAfterUpdateTransaction(view);
+        updateTypefaceIfNeeded(view);
+
+        ReadableMap inputMap = view.pendingTextFromJS;
+        if (inputMap != null) {
+            view.pendingTextFromJS = null;
+            applyText(view, inputMap);
+        }
+    }
+
+    private void applyText(ReactAztecText view, ReadableMap inputMap) {
         if (!inputMap.hasKey("eventCount")) {
             setTextfromJS(view, inputMap.getString("text"), inputMap.getMap("selection"));
         } else {
@@ -182,11 +246,20 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
     }
 
     private void setTextfromJS(ReactAztecText view, String text, @Nullable ReadableMap selection) {
-        view.setIsSettingTextFromJS(true);
-        view.disableOnSelectionListener();
-        view.fromHtml(text, true);
-        view.enableOnSelectionListener();
-        view.setIsSettingTextFromJS(false);
+        // a parse still waiting for its turn is stale now
+        view.cancelDeferredHtml();
+
+        if (view.isShowingHtml(text)) {
+            // JS is echoing back what the view already shows, don't parse it and rebuild the spans again
+            view.onSetTextSkipped();
+        } else if (view.deferredParseThreshold > 0 && text.length() > view.deferredParseThreshold) {
+            view.setHtmlFromJSDeferred(text,
+                    selection != null ? selection.getInt("start") : -1,
+                    selection != null ? selection.getInt("end") : -1);
+            return;
+        } else {
+            view.setHtmlFromJS(text);
+        }
         updateSelectionIfNeeded(view, selection);
     }
 
@@ -198,17 +271,29 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
         }
     }
 
+    /**
+     * Size in bytes of the native undo/redo history, driven by the undo, redo and clearHistory commands.
+     * Disabled when 0.
+     */
+    @ReactProp(name = "undoHistoryBudget", defaultInt = 0)
+    public void setUndoHistoryBudget(final ReactAztecText view, int byteBudget) {
+        view.setUndoHistoryBudget(byteBudget);
+    }
+
+    @ReactProp(name = "deferredParseThreshold", defaultInt = 0)
+    public void setDeferredParseThreshold(final ReactAztecText view, int threshold) {
+        view.deferredParseThreshold = threshold;
+    }
+
     @ReactProp(name = "activeFormats", defaultBoolean = false)
     public void setActiveFormats(final ReactAztecText view, @Nullable ReadableArray activeFormats) {
+        int formats = ReactAztecText.FORMAT_NONE;
         if (activeFormats != null) {
-            String[] activeFormatsArray = new String[activeFormats.size()];
             for (int i = 0; i < activeFormats.size(); i++) {
-                activeFormatsArray[i] = activeFormats.getString(i);
+                formats |= ReactAztecText.getFormatBit(activeFormats.getString(i));
             }
-            view.setActiveFormats(Arrays.asList(activeFormatsArray));
-        } else {
-            view.setActiveFormats(new ArrayList<String>());
         }
+        view.setActiveFormats(formats);
     }
 
     /*
@@ -223,15 +308,8 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
     @ReactProp(name = ViewProps.FONT_FAMILY)
     public void setFontFamily(ReactAztecText view, String fontFamily) {
-        int style = Typeface.NORMAL;
-        if (view.getTypeface() != null) {
-            style = view.getTypeface().getStyle();
-        }
-        Typeface newTypeface = ReactFontManager.getInstance().getTypeface(
-                fontFamily,
-                style,
-                view.getContext().getAssets());
-        view.setTypeface(newTypeface);
+        view.fontFamily = fontFamily;
+        view.fontPropsChanged = true;
     }
 
     /**
@@ -249,13 +327,8 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
                 (fontWeightNumeric != -1 && fontWeightNumeric < 500)) {
             fontWeight = Typeface.NORMAL;
         }
-        Typeface currentTypeface = view.getTypeface();
-        if (currentTypeface == null) {
-            currentTypeface = Typeface.DEFAULT;
-        }
-        if (fontWeight != currentTypeface.getStyle()) {
-            view.setTypeface(currentTypeface, fontWeight);
-        }
+        view.fontWeight = fontWeight;
+        view.fontPropsChanged = true;
     }
 
     /**
@@ -270,13 +343,47 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
         } else if ("normal".equals(fontStyleString)) {
             fontStyle = Typeface.NORMAL;
         }
+        view.fontStyle = fontStyle;
+        view.fontPropsChanged = true;
+    }
+
+    /**
+     * Resolve the font props set in this update into one Typeface, instead of deriving a new one per prop.
+     * Typefaces of custom families are kept in {@link #sTypefaceCache}, so identically styled blocks don't
+     * go through ReactFontManager again.
+     */
+    private static void updateTypefaceIfNeeded(ReactAztecText view) {
+        if (!view.fontPropsChanged) {
+            return;
+        }
+        view.fontPropsChanged = false;
 
-        Typeface currentTypeface = view.getTypeface();
-        if (currentTypeface == null) {
-            currentTypeface = Typeface.DEFAULT;
+        int style = Typeface.NORMAL;
+        if (view.fontWeight == Typeface.BOLD) {
+            style |= Typeface.BOLD;
+        }
+        if (view.fontStyle == Typeface.ITALIC) {
+            style |= Typeface.ITALIC;
         }
-        if (fontStyle != currentTypeface.getStyle()) {
-            view.setTypeface(currentTypeface, fontStyle);
+
+        Typeface typeface;
+        if (view.fontFamily == null) {
+            // Typeface.create caches the styles derived from a given Typeface itself
+            typeface = Typeface.create(view.getDefaultTypeface(), style);
+        } else {
+            String key = view.fontFamily + "|" + style;
+            typeface = sTypefaceCache.get(key);
+            if (typeface == null) {
+                typeface = ReactFontManager.getInstance().getTypeface(
+                        view.fontFamily,
+                        style,
+                        view.getContext().getAssets());
+                sTypefaceCache.put(key, typeface);
+            }
+        }
+
+        if (typeface != view.getTypeface()) {
+            view.setTypeface(typeface);
         }
     }
 
@@ -350,19 +457,14 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
      */
     @ReactProp(name = "disableGutenbergMode", defaultBoolean = false)
     public void disableGBMode(final ReactAztecText view, boolean disable) {
-        if (disable) {
-            view.addPlugin(new WordPressCommentsPlugin(view));
-            view.addPlugin(new MoreToolbarButton(view));
-            view.addPlugin(new CaptionShortcodePlugin(view));
-            view.addPlugin(new VideoShortcodePlugin());
-            view.addPlugin(new AudioShortcodePlugin());
-            view.addPlugin(new HiddenGutenbergPlugin(view));
-            view.addPlugin(new CssUnderlinePlugin());
-            view.setImageGetter(new GlideImageLoader(view.getContext()));
-            view.setVideoThumbnailGetter(new GlideVideoThumbnailLoader(view.getContext()));
-            // we need to restart the editor now
-            String content = view.toHtml(false);
-            view.fromHtml(content, false);
+        if (disable && !view.hasExtraPlugins()) {
+            ReactAztecPluginRegistry.addFullEditorPlugins(view);
+            // The text of this update is only parsed after the plugins are in (see onAfterUpdateTransaction),
+            // we need to restart the editor only if it was already showing some content
+            if (view.length() > 0) {
+                String content = view.toCachedHtml();
+                view.parseHtml(content, false);
+            }
         }
     }
 
@@ -400,6 +502,42 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
         }
     }
 
+    /*
+     * When enabled, text changes are sent to JS as compact deltas (replaced range, inserted text and its formats)
+     * instead of the whole block HTML. A full snapshot is sent for the first change, for edits touching line breaks
+     * or spans other than bold, italic and strikethrough, when the native content diverged from what the deltas
+     * describe, or when JS asks for one via the `requestTextSnapshot` command.
+     */
+    @ReactProp(name = "emitTextChangeDeltas", defaultBoolean = false)
+    public void setEmitTextChangeDeltas(final ReactAztecText view, boolean emitTextChangeDeltas) {
+        view.setShouldEmitTextDeltas(emitTextChangeDeltas);
+    }
+
+    /**
+     * Throttling policies of the events sent to JS, e.g. for blocks in the background.
+     * 0 sends every event right away, -1 at most once per frame, and any positive value at most once every that
+     * many milliseconds. Pending events are always sent before blur, Enter, Backspace and paste events.
+     */
+    @ReactProp(name = "textChangeThrottle", defaultInt = ReactAztecEventThrottle.IMMEDIATE)
+    public void setTextChangeThrottle(final ReactAztecText view, int policy) {
+        view.textChangeThrottle = policy;
+    }
+
+    @ReactProp(name = "selectionChangeThrottle", defaultInt = ReactAztecEventThrottle.IMMEDIATE)
+    public void setSelectionChangeThrottle(final ReactAztecText view, int policy) {
+        view.selectionChangeThrottle = policy;
+    }
+
+    @ReactProp(name = "scrollThrottle", defaultInt = ReactAztecEventThrottle.IMMEDIATE)
+    public void setScrollThrottle(final ReactAztecText view, int policy) {
+        view.scrollThrottle = policy;
+    }
+
+    @ReactProp(name = "contentSizeChangeThrottle", defaultInt = ReactAztecEventThrottle.PER_FRAME)
+    public void setContentSizeChangeThrottle(final ReactAztecText view, int policy) {
+        view.contentSizeChangeThrottle = policy;
+    }
+
     @ReactProp(name = "onEnter", defaultBoolean = false)
     public void setOnEnterHandling(final ReactAztecText view, boolean onEnterHandling) {
         view.shouldHandleOnEnter = onEnterHandling;
@@ -415,11 +553,25 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
         view.shouldHandleOnPaste = onPasteHandling;
     }
 
+    @ReactProp(name = "pasteMaxLength", defaultInt = 0)
+    public void setPasteMaxLength(final ReactAztecText view, int maxLength) {
+        view.pasteMaxLength = maxLength;
+    }
+
+    @ReactProp(name = "pasteInlineThreshold", defaultInt = 0)
+    public void setPasteInlineThreshold(final ReactAztecText view, int inlineThreshold) {
+        view.pasteInlineThreshold = inlineThreshold;
+    }
+
     @Override
     public Map<String, Integer> getCommandsMap() {
         return MapBuilder.<String, Integer>builder()
                 .put("focusTextInput", mFocusTextInputCommandCode)
                 .put("blurTextInput", mBlurTextInputCommandCode)
+                .put("requestTextSnapshot", REQUEST_TEXT_SNAPSHOT)
+                .put("undo", UNDO)
+                .put("redo", REDO)
+                .put("clearHistory", CLEAR_HISTORY)
                 .build();
     }
 
@@ -432,31 +584,45 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
         } else if (commandType == mBlurTextInputCommandCode) {
             parent.clearFocusFromJS();
             return;
+        } else if (commandType == REQUEST_TEXT_SNAPSHOT) {
+            parent.dispatchTextSnapshot();
+            return;
+        } else if (commandType == UNDO) {
+            parent.undo();
+            return;
+        } else if (commandType == REDO) {
+            parent.redo();
+            return;
+        } else if (commandType == CLEAR_HISTORY) {
+            parent.clearHistory();
+            return;
         }
         super.receiveCommand(parent, commandType, args);
     }
 
     @Override
     protected void addEventEmitters(final ThemedReactContext reactContext, final ReactAztecText aztecText) {
-        aztecText.addTextChangedListener(new AztecTextWatcher(reactContext, aztecText));
+        // replaces the watcher of the previous mount when the view comes from the pool
+        aztecText.setJSTextWatcher(new AztecTextWatcher(reactContext, aztecText));
         aztecText.setOnFocusChangeListener(
                 new View.OnFocusChangeListener() {
                     public void onFocusChange(View v, boolean hasFocus) {
                         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
                         final ReactAztecText editText = (ReactAztecText)v;
                         if (hasFocus) {
-                            eventDispatcher.dispatchEvent(
-                                    new ReactAztecFocusEvent(
+                            editText.dispatchAztecEvent(eventDispatcher,
+                                    ReactAztecFocusEvent.obtain(
                                             editText.getId()));
                         } else {
-                            eventDispatcher.dispatchEvent(
-                                    new ReactAztecBlurEvent(
+                            editText.flushThrottledEvents();
+                            editText.dispatchAztecEvent(eventDispatcher,
+                                    ReactAztecBlurEvent.obtain(
                                             editText.getId()));
 
-                            eventDispatcher.dispatchEvent(
-                                    new ReactAztecEndEditingEvent(
+                            editText.dispatchAztecEvent(eventDispatcher,
+                                    ReactAztecEndEditingEvent.obtain(
                                             editText.getId(),
-                                            editText.toHtml(false)));
+                                            editText.toCachedHtml()));
                         }
                     }
                 });
@@ -469,18 +635,26 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
 
         private EventDispatcher mEventDispatcher;
         private ReactAztecText mEditText;
-        private String mPreviousText;
+        // Only the slice about to be replaced is copied, so the cost per keystroke doesn't depend on the block length
+        private String mPreviousReplacedText;
+        private int mPreviousTextLength;
+        // Whether the slice about to be replaced can be described by a delta, see ReactAztecText.canDescribeAsDelta
+        private boolean mCanDescribeReplacedTextAsDelta;
 
         public AztecTextWatcher(final ReactContext reactContext, final ReactAztecText aztecText) {
             mEventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
             mEditText = aztecText;
-            mPreviousText = null;
+            mPreviousReplacedText = null;
         }
 
         @Override
         public void beforeTextChanged(CharSequence s, int start, int count, int after) {
             // Incoming charSequence gets mutated before onTextChanged() is invoked
-            mPreviousText = s.toString();
+            mPreviousReplacedText = TextUtils.substring(s, start, start + count);
+            mPreviousTextLength = s.length();
+            // the spans of what gets deleted are gone by onTextChanged
+            mCanDescribeReplacedTextAsDelta = !mEditText.shouldEmitTextDeltas || count == 0
+                    || mEditText.canDescribeAsDelta(start, start + count);
         }
 
         @Override
@@ -491,34 +665,68 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
                 return;
             }
 
-            Assertions.assertNotNull(mPreviousText);
-            String newText = s.toString().substring(start, start + count);
-            String oldText = mPreviousText.substring(start, start + before);
+            Assertions.assertNotNull(mPreviousReplacedText);
+            String newText = TextUtils.substring(s, start, start + count);
+            String oldText = mPreviousReplacedText;
+            // read it now, the outer tags insertion below triggers nested text changes
+            boolean wasEmpty = mPreviousTextLength == 0;
             // Don't send same text changes
             if (count == before && newText.equals(oldText)) {
                 return;
             }
 
+            if (mOnTextChangeListener != null) {
+                mOnTextChangeListener.onTextChange();
+            }
+
+            int baseEventCount = mEditText.mNativeEventCount;
             int currentEventCount = mEditText.incrementAndGetEventCounter();
-            // The event that contains the event counter and updates it must be sent first.
-            // TODO: t7936714 merge these events
-            mEventDispatcher.dispatchEvent(
-                    new ReactTextChangedEvent(
-                            mEditText.getId(),
-                            mEditText.toHtml(false),
-                            currentEventCount));
-
-            mEventDispatcher.dispatchEvent(
-                    new ReactTextInputEvent(
-                            mEditText.getId(),
-                            newText,
-                            oldText,
-                            start,
-                            start + before));
+            if (mEditText.throttleTextChange()) {
+                // sent later on as a snapshot of the content, see ReactAztecEventThrottle
+            } else if (mEditText.shouldEmitTextDeltas) {
+                // Deltas only carry the text and its inline formats. Line breaks split or merge paragraphs and list
+                // items, and other spans (links, headings, code...) can't be rebuilt out of the delta either.
+                boolean isDescribable = mCanDescribeReplacedTextAsDelta
+                        && newText.indexOf('\n') < 0
+                        && oldText.indexOf('\n') < 0
+                        && (count == 0 || mEditText.canDescribeAsDelta(start, start + count));
+                if (mEditText.consumeNeedsTextSnapshot() || !isDescribable) {
+                    mEditText.dispatchAztecEvent(mEventDispatcher,
+                            ReactAztecTextChangeEvent.snapshot(
+                                    mEditText.getId(),
+                                    mEditText.toCachedHtml(),
+                                    currentEventCount,
+                                    baseEventCount,
+                                    true));
+                } else {
+                    mEditText.dispatchAztecEvent(mEventDispatcher,
+                            ReactAztecTextChangeEvent.delta(
+                                    mEditText.getId(),
+                                    start,
+                                    start + before,
+                                    newText,
+                                    mEditText.getFormatsInRange(start, start + count),
+                                    currentEventCount,
+                                    baseEventCount));
+                }
+            } else {
+                mEditText.dispatchAztecEvent(mEventDispatcher,
+                        ReactAztecTextChangeEvent.change(
+                                mEditText.getId(),
+                                mEditText.toCachedHtml(),
+                                start,
+                                start + before,
+                                newText,
+                                oldText,
+                                currentEventCount,
+                                baseEventCount));
+            }
 
             // Add the outer tags when the field was started empty, and only the first time the user types in it.
-            if (mPreviousText.length() == 0 && !TextUtils.isEmpty(newText) && !TextUtils.isEmpty(mEditText.getTagName())) {
-                mEditText.fromHtml('<' + mEditText.getTagName() + '>' + newText + "</" + mEditText.getTagName() + '>', false);
+            if (wasEmpty && !TextUtils.isEmpty(newText) && !TextUtils.isEmpty(mEditText.getTagName())) {
+                mEditText.parseHtml('<' + mEditText.getTagName() + '>' + newText + "</" + mEditText.getTagName() + '>', false);
+                // the outer tags are not part of the delta we just sent
+                mEditText.invalidateTextDeltas();
             }
         }
 
@@ -557,8 +765,8 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
                 mPreviousContentWidth = contentWidth;
 
                 // FIXME: Note the 2 hacks here
-                mEventDispatcher.dispatchEvent(
-                        new ReactContentSizeChangedEvent(
+                mReactAztecText.dispatchAztecEvent(mEventDispatcher,
+                        ReactAztecContentSizeChangeEvent.obtain(
                                 mReactAztecText.getId(),
                                 PixelUtil.toDIPFromPixel(contentWidth),
                                 PixelUtil.toDIPFromPixel(contentHeight)));
@@ -594,7 +802,7 @@ public class ReactAztecManager extends SimpleViewManager<ReactAztecText> {
                         mReactAztecText.getWidth(),
                         mReactAztecText.getHeight());
 
-                mEventDispatcher.dispatchEvent(event);
+                mReactAztecText.dispatchAztecEvent(mEventDispatcher, event);
 
                 mPreviousHoriz = horiz;
                 mPreviousVert = vert;
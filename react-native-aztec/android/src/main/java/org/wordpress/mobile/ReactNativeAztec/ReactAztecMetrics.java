@@ -0,0 +1,186 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Counters and fixed-bucket histograms of the hot paths of {@link ReactAztecText}, collected per view and for the
+ * whole session. Read them through {@link ReactAztecMetricsModule}.
+ *
+ * Collection is off by default. Call sites check {@link #isEnabled()} before taking any timestamp, so the only
+ * cost when off is a static field read. Everything in here is only touched from the UI thread.
+ */
+final class ReactAztecMetrics {
+
+    // Upper bounds of the buckets, the last bucket counts everything above the last bound
+    private static final double[] LATENCY_BUCKETS_MS = {0.5, 1, 2, 4, 8, 16, 32, 64, 128, 256};
+    private static final double[] SIZE_BUCKETS_CHARS = {64, 256, 1024, 4096, 16384, 65536, 262144};
+
+    private static boolean sEnabled = false;
+    private static ReactAztecMetrics sSession = new ReactAztecMetrics();
+    // Views aren't kept alive just to report their metrics
+    private static final WeakHashMap<ReactAztecText, ReactAztecMetrics> sViews = new WeakHashMap<>();
+
+    private final Histogram mToHtml = new Histogram(LATENCY_BUCKETS_MS);
+    private final Histogram mFromHtml = new Histogram(LATENCY_BUCKETS_MS);
+    private final Histogram mPasteSize = new Histogram(SIZE_BUCKETS_CHARS);
+    private final Map<String, int[]> mEventCounts = new HashMap<>();
+    private int mTruncatedPasteCount = 0;
+
+    private ReactAztecMetrics() {
+    }
+
+    static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (!enabled) {
+            reset();
+        }
+        sEnabled = enabled;
+    }
+
+    static void reset() {
+        sSession = new ReactAztecMetrics();
+        sViews.clear();
+    }
+
+    /**
+     * Drop the metrics of a view, e.g. when it gets reused for another block.
+     */
+    static void resetView(ReactAztecText view) {
+        sViews.remove(view);
+    }
+
+    static void recordToHtml(ReactAztecText view, long durationNanos) {
+        double durationMs = durationNanos / 1e6;
+        sSession.mToHtml.record(durationMs);
+        forView(view).mToHtml.record(durationMs);
+    }
+
+    static void recordFromHtml(ReactAztecText view, long durationNanos) {
+        double durationMs = durationNanos / 1e6;
+        sSession.mFromHtml.record(durationMs);
+        forView(view).mFromHtml.record(durationMs);
+    }
+
+    static void recordEvent(ReactAztecText view, String eventName) {
+        sSession.incrementEventCount(eventName);
+        forView(view).incrementEventCount(eventName);
+    }
+
+    static void recordPaste(ReactAztecText view, int length, boolean isTruncated) {
+        ReactAztecMetrics viewMetrics = forView(view);
+        sSession.mPasteSize.record(length);
+        viewMetrics.mPasteSize.record(length);
+        if (isTruncated) {
+            sSession.mTruncatedPasteCount++;
+            viewMetrics.mTruncatedPasteCount++;
+        }
+    }
+
+    private static ReactAztecMetrics forView(ReactAztecText view) {
+        ReactAztecMetrics metrics = sViews.get(view);
+        if (metrics == null) {
+            metrics = new ReactAztecMetrics();
+            sViews.put(view, metrics);
+        }
+        return metrics;
+    }
+
+    private void incrementEventCount(String eventName) {
+        int[] count = mEventCounts.get(eventName);
+        if (count == null) {
+            count = new int[1];
+            mEventCounts.put(eventName, count);
+        }
+        count[0]++;
+    }
+
+    static WritableMap toWritableMap() {
+        WritableMap map = Arguments.createMap();
+        map.putBoolean("enabled", sEnabled);
+        map.putMap("session", sSession.serialize());
+
+        WritableArray views = Arguments.createArray();
+        for (Map.Entry<ReactAztecText, ReactAztecMetrics> entry : sViews.entrySet()) {
+            ReactAztecText view = entry.getKey();
+            if (view == null) {
+                continue;
+            }
+            WritableMap viewMap = entry.getValue().serialize();
+            viewMap.putInt("target", view.getId());
+            // counters the view keeps on its own anyway
+            viewMap.putInt("htmlCacheHits", view.getHtmlCacheHitCount());
+            viewMap.putInt("htmlCacheMisses", view.getHtmlCacheMissCount());
+            viewMap.putInt("skippedSetText", view.getSkippedSetTextCount());
+            viewMap.putInt("intrinsicContentSizeUpdates", view.getIntrinsicContentSizeUpdateCount());
+            viewMap.putInt("contentSizeChecksSkipped", view.getContentSizeCheckSkippedCount());
+            views.pushMap(viewMap);
+        }
+        map.putArray("views", views);
+        return map;
+    }
+
+    private WritableMap serialize() {
+        WritableMap map = Arguments.createMap();
+        map.putMap("toHtml", mToHtml.serialize());
+        map.putMap("fromHtml", mFromHtml.serialize());
+        map.putMap("pasteSize", mPasteSize.serialize());
+        map.putInt("truncatedPastes", mTruncatedPasteCount);
+        WritableMap events = Arguments.createMap();
+        for (Map.Entry<String, int[]> entry : mEventCounts.entrySet()) {
+            events.putInt(entry.getKey(), entry.getValue()[0]);
+        }
+        map.putMap("events", events);
+        return map;
+    }
+
+    private static class Histogram {
+        private final double[] mBounds;
+        private final int[] mCounts;
+        private int mCount = 0;
+        private double mSum = 0;
+        private double mMax = 0;
+
+        Histogram(double[] bounds) {
+            mBounds = bounds;
+            mCounts = new int[bounds.length + 1];
+        }
+
+        void record(double value) {
+            int bucket = 0;
+            while (bucket < mBounds.length && value > mBounds[bucket]) {
+                bucket++;
+            }
+            mCounts[bucket]++;
+            mCount++;
+            mSum += value;
+            mMax = Math.max(mMax, value);
+        }
+
+        WritableMap serialize() {
+            WritableMap map = Arguments.createMap();
+            map.putInt("count", mCount);
+            map.putDouble("sum", mSum);
+            map.putDouble("max", mMax);
+            WritableArray bounds = Arguments.createArray();
+            for (double bound : mBounds) {
+                bounds.pushDouble(bound);
+            }
+            map.putArray("bounds", bounds);
+            WritableArray counts = Arguments.createArray();
+            for (int count : mCounts) {
+                counts.pushInt(count);
+            }
+            map.putArray("counts", counts);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.UiThreadUtil;
+
+/**
+ * Exposes {@link ReactAztecMetrics} to JS. The metrics are owned by the UI thread, so every call hops there.
+ */
+public class ReactAztecMetricsModule extends ReactContextBaseJavaModule {
+
+    public ReactAztecMetricsModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "AztecMetrics";
+    }
+
+    @ReactMethod
+    public void setEnabled(final boolean enabled) {
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                ReactAztecMetrics.setEnabled(enabled);
+            }
+        });
+    }
+
+    @ReactMethod
+    public void getMetrics(final Promise promise) {
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                promise.resolve(ReactAztecMetrics.toWritableMap());
+            }
+        });
+    }
+
+    @ReactMethod
+    public void reset() {
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                ReactAztecMetrics.reset();
+            }
+        });
+    }
+}
@@ -1,27 +1,82 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.annotation.Nullable;
 
 import com.facebook.react.ReactPackage;
+import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.uimanager.ViewManager;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class ReactAztecPackage implements ReactPackage {
 
+    private final int mViewPoolPrewarmCount;
+    private final @Nullable ReactAztecManager.OnTextChangeListener mOnTextChangeListener;
+    // Manager of the current catalyst instance
+    private @Nullable ReactAztecManager mViewManager;
+
+    public ReactAztecPackage() {
+        this(0);
+    }
+
+    /**
+     * @param viewPoolPrewarmCount number of Aztec views to build ahead of time, see {@link ReactAztecViewPool}
+     */
+    public ReactAztecPackage(int viewPoolPrewarmCount) {
+        this(viewPoolPrewarmCount, null);
+    }
+
+    /**
+     * @param onTextChangeListener told about the text changes of the Aztec views, see
+     *                             {@link ReactAztecManager.OnTextChangeListener}
+     */
+    public ReactAztecPackage(int viewPoolPrewarmCount,
+                             @Nullable ReactAztecManager.OnTextChangeListener onTextChangeListener) {
+        mViewPoolPrewarmCount = viewPoolPrewarmCount;
+        mOnTextChangeListener = onTextChangeListener;
+    }
+
     @Override
     public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
         List<ViewManager> views = new ArrayList<>();
-        views.add(new ReactAztecManager());
+        mViewManager = new ReactAztecManager(mViewPoolPrewarmCount, mOnTextChangeListener);
+        views.add(mViewManager);
         return views;
     }
 
     @Override
     public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+        List<NativeModule> modules = new ArrayList<>();
+        modules.add(new ReactAztecMetricsModule(reactContext));
+        modules.add(new ReactAztecPasteModule(reactContext));
+        modules.add(new LifecycleModule());
+        return modules;
+    }
+
+    /**
+     * RN only tells native modules the catalyst instance is going away, pass it on to the view manager so it lets
+     * go of its pooled views.
+     */
+    void onCatalystInstanceDestroy() {
+        if (mViewManager != null) {
+            mViewManager.onCatalystInstanceDestroy();
+            mViewManager = null;
+        }
+    }
+
+    private class LifecycleModule extends BaseJavaModule {
+        @Override
+        public String getName() {
+            return "AztecLifecycle";
+        }
+
+        @Override
+        public void onCatalystInstanceDestroy() {
+            ReactAztecPackage.this.onCatalystInstanceDestroy();
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.support.annotation.Nullable;
+import android.text.Editable;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+
+import com.facebook.react.bridge.UiThreadUtil;
+
+import org.wordpress.aztec.AztecParser;
+import org.wordpress.aztec.plugins.IAztecPlugin;
+import org.wordpress.aztec.source.Format;
+import org.wordpress.aztec.spans.AztecCodeSpan;
+import org.wordpress.aztec.spans.IAztecInlineSpan;
+import org.wordpress.aztec.spans.ParagraphSpan;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * Parses HTML from JS on a worker thread, then hands the resulting Editable back to the view on the UI thread,
+ * see {@link ReactAztecText#setHtmlFromJSDeferred}.
+ *
+ * No view is built or touched off the UI thread: the HTML goes through Aztec's view-less parser, with plugin
+ * instances of its own. The only styling the editor applies to the result (the link colors) is done by the view once
+ * back on the UI thread. Content the editor styles further (lists, quotes, headings, code, media...) isn't handed
+ * back, the view parses it itself. A parse made stale by a newer `setText` is skipped, or its result dropped.
+ */
+class ReactAztecParseTask implements Runnable {
+
+    private static @Nullable Handler sHandler;
+
+    private final WeakReference<ReactAztecText> mViewReference;
+    private final Context mContext;
+    private final String mHtml;
+    private final int mGeneration;
+
+    private ReactAztecParseTask(ReactAztecText view, String html, int generation) {
+        mViewReference = new WeakReference<>(view);
+        mContext = view.getContext().getApplicationContext();
+        mHtml = html;
+        mGeneration = generation;
+    }
+
+    /**
+     * Views in the full editor mode, or in calypso mode, are parsed on the UI thread: their plugins are bound to
+     * the view and the calypso formatting needs the editor.
+     */
+    static boolean canParse(ReactAztecText view) {
+        return !view.hasExtraPlugins() && !view.isInCalypsoMode();
+    }
+
+    static void execute(ReactAztecText view, String html, int generation) {
+        getHandler().post(new ReactAztecParseTask(view, html, generation));
+    }
+
+    private static synchronized Handler getHandler() {
+        if (sHandler == null) {
+            HandlerThread thread = new HandlerThread("ReactAztecParse", Process.THREAD_PRIORITY_BACKGROUND);
+            thread.start();
+            sHandler = new Handler(thread.getLooper());
+        }
+        return sHandler;
+    }
+
+    @Override
+    public void run() {
+        ReactAztecText view = mViewReference.get();
+        if (view == null || !view.isHtmlParseCurrent(mGeneration)) {
+            return;
+        }
+
+        // The views parsed here have no plugins, see canParse()
+        AztecParser parser = new AztecParser(new ArrayList<IAztecPlugin>());
+        Spanned spanned = parser.fromHtml(Format.removeSourceEditorFormatting(mHtml, false), mContext);
+        final Editable result = isStyledByParser(spanned) ? new SpannableStringBuilder(spanned) : null;
+
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                ReactAztecText view = mViewReference.get();
+                if (view != null) {
+                    view.applyParsedHtml(mGeneration, mHtml, result);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if the spans only need the link style of the editor, see ReactAztecText.applyParsedHtml()
+     */
+    private static boolean isStyledByParser(Spanned spanned) {
+        for (Object span : spanned.getSpans(0, spanned.length(), Object.class)) {
+            boolean isInline = span instanceof IAztecInlineSpan && !(span instanceof AztecCodeSpan);
+            if (!isInline && !(span instanceof ParagraphSpan)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,9 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.annotation.Nullable;
+
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.events.Event;
@@ -12,20 +16,58 @@ class ReactAztecPasteEvent extends Event<ReactAztecPasteEvent> {
 
     private static final String EVENT_NAME = "topTextInputPaste";
 
+    private static final Pools.SynchronizedPool<ReactAztecPasteEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(2);
+
     private String mCurrentContent;
     private int mSelectionStart;
     private int mSelectionEnd;
     private String mPastedText;
     private String mPastedHtml;
+    // Set instead of the inline data when it was too large, and written to a file
+    private @Nullable String mPastedTextUri;
+    private @Nullable String mPastedHtmlUri;
+    private boolean mIsTruncated;
+
+    private ReactAztecPasteEvent() {
+    }
 
-    public ReactAztecPasteEvent(int viewId, String currentContent, int selectionStart,
-                                int selectionEnd, String pastedText, String pastedHtml) {
-        super(viewId);
+    public static ReactAztecPasteEvent obtain(int viewId, String currentContent, int selectionStart,
+                                              int selectionEnd, String pastedText, String pastedHtml,
+                                              @Nullable String pastedTextUri, @Nullable String pastedHtmlUri,
+                                              boolean isTruncated) {
+        ReactAztecPasteEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new ReactAztecPasteEvent();
+        }
+        event.init(viewId, currentContent, selectionStart, selectionEnd, pastedText, pastedHtml, pastedTextUri,
+                pastedHtmlUri, isTruncated);
+        return event;
+    }
+
+    private void init(int viewId, String currentContent, int selectionStart, int selectionEnd, String pastedText,
+                      String pastedHtml, @Nullable String pastedTextUri, @Nullable String pastedHtmlUri,
+                      boolean isTruncated) {
+        super.init(viewId);
         mCurrentContent = currentContent;
         mSelectionStart = selectionStart;
         mSelectionEnd = selectionEnd;
         mPastedText = pastedText;
         mPastedHtml = pastedHtml;
+        mPastedTextUri = pastedTextUri;
+        mPastedHtmlUri = pastedHtmlUri;
+        mIsTruncated = isTruncated;
+    }
+
+    @Override
+    public void onDispose() {
+        // don't keep a pasted page alive in the pool
+        mCurrentContent = null;
+        mPastedText = null;
+        mPastedHtml = null;
+        mPastedTextUri = null;
+        mPastedHtmlUri = null;
+        EVENTS_POOL.release(this);
     }
 
     @Override
@@ -51,6 +93,13 @@ class ReactAztecPasteEvent extends Event<ReactAztecPasteEvent> {
         eventData.putInt("selectionEnd", mSelectionEnd);
         eventData.putString("pastedText", mPastedText);
         eventData.putString("pastedHtml", mPastedHtml);
+        if (mPastedTextUri != null) {
+            eventData.putString("pastedTextUri", mPastedTextUri);
+        }
+        if (mPastedHtmlUri != null) {
+            eventData.putString("pastedHtmlUri", mPastedHtmlUri);
+        }
+        eventData.putBoolean("isTruncated", mIsTruncated);
         return eventData;
     }
 }
@@ -0,0 +1,190 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.net.Uri;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lets JS read, chunk by chunk, the pasted data {@link ReactAztecPasteTask} wrote to the app cache instead of sending
+ * it inline in the paste event. A file is deleted once JS released it.
+ */
+public class ReactAztecPasteModule extends ReactContextBaseJavaModule {
+
+    private static final String TAG = "ReactAztecPasteModule";
+
+    // In chars
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final class PastedDataReader {
+        final Reader reader;
+        // Chars read so far
+        int offset;
+
+        PastedDataReader(Reader reader) {
+            this.reader = reader;
+        }
+    }
+
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    // Files being read, by URI. Worker thread only
+    private final Map<String, PastedDataReader> mReaders = new HashMap<>();
+
+    public ReactAztecPasteModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "AztecPaste";
+    }
+
+    /**
+     * Resolves with `{ chunk, isLast }`, the data of the file starting at `offset` (in chars). Reading the chunks
+     * in order is cheapest, the file is only read again from its start otherwise.
+     */
+    @ReactMethod
+    public void readPastedChunk(final String uri, final int offset, final Promise promise) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    PastedDataReader dataReader = getReader(uri, offset);
+                    char[] buffer = new char[CHUNK_SIZE + 1];
+                    int length = read(dataReader.reader, buffer, 0, CHUNK_SIZE);
+                    // Never split a surrogate pair, half of it wouldn't make it through the bridge
+                    if (length == CHUNK_SIZE && Character.isHighSurrogate(buffer[length - 1])) {
+                        length += read(dataReader.reader, buffer, length, 1);
+                    }
+                    dataReader.offset += length;
+
+                    WritableMap result = Arguments.createMap();
+                    result.putString("chunk", new String(buffer, 0, length));
+                    result.putBoolean("isLast", length < CHUNK_SIZE);
+                    promise.resolve(result);
+                } catch (IOException e) {
+                    closeReader(uri);
+                    promise.reject("read_failed", "Can't read the pasted data " + uri, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * JS is done with the file, whether it read it all or not.
+     */
+    @ReactMethod
+    public void releasePastedData(final String uri) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                closeReader(uri);
+                File file = getPastedFile(uri);
+                if (file != null) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onCatalystInstanceDestroy() {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // The files left are cleared as stale by a later paste
+                for (PastedDataReader dataReader : mReaders.values()) {
+                    close(dataReader.reader);
+                }
+                mReaders.clear();
+            }
+        });
+        mExecutor.shutdown();
+    }
+
+    private PastedDataReader getReader(String uri, int offset) throws IOException {
+        PastedDataReader dataReader = mReaders.get(uri);
+        if (dataReader != null && dataReader.offset == offset) {
+            return dataReader;
+        }
+        closeReader(uri);
+
+        File file = getPastedFile(uri);
+        if (file == null) {
+            throw new IOException("Not a pasted data file");
+        }
+        dataReader = new PastedDataReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        mReaders.put(uri, dataReader);
+        if (dataReader.reader.skip(offset) != offset) {
+            throw new IOException("Offset " + offset + " past the end");
+        }
+        dataReader.offset = offset;
+        return dataReader;
+    }
+
+    /**
+     * @return the file the URI points to, or null if it isn't one of the pasted data files (JS can't read or
+     * delete anything else through this module)
+     */
+    private @Nullable File getPastedFile(String uri) {
+        Uri parsedUri = Uri.parse(uri);
+        if (!"file".equals(parsedUri.getScheme()) || parsedUri.getPath() == null) {
+            return null;
+        }
+        try {
+            File file = new File(parsedUri.getPath()).getCanonicalFile();
+            File dir = ReactAztecPasteTask.getCacheDir(getReactApplicationContext()).getCanonicalFile();
+            return dir.equals(file.getParentFile()) ? file : null;
+        } catch (IOException e) {
+            Log.w(TAG, "Can't resolve " + uri, e);
+            return null;
+        }
+    }
+
+    private void closeReader(String uri) {
+        PastedDataReader dataReader = mReaders.remove(uri);
+        if (dataReader != null) {
+            close(dataReader.reader);
+        }
+    }
+
+    private static void close(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // nothing else we can do
+        }
+    }
+
+    /**
+     * Reads up to `length` chars, less only at the end of the data.
+     */
+    private static int read(Reader reader, char[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int count = reader.read(buffer, offset + total, length - total);
+            if (count < 0) {
+                break;
+            }
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,195 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.content.ClipData;
+import android.content.Context;
+import android.net.Uri;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.facebook.react.bridge.UiThreadUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coerces the clipboard contents to text and HTML on a worker thread, then hands them back to the view on the
+ * UI thread so it can dispatch a {@link ReactAztecPasteEvent}.
+ *
+ * Pasted data longer than the view's `pasteMaxLength` is truncated. Data longer than `pasteInlineThreshold` is
+ * written to a file in the app cache and sent to JS by reference (as a file URI) instead of inline in the event.
+ * JS reads it through {@link ReactAztecPasteModule}, and the file gets deleted once JS released it.
+ */
+class ReactAztecPasteTask implements Runnable {
+
+    private static final String TAG = "ReactAztecPasteTask";
+
+    private static final String PASTE_CACHE_DIR = "aztec-paste";
+    // Files JS never released (e.g. it got reloaded meanwhile) are deleted after that long
+    private static final long STALE_FILE_AGE_MS = 60 * 60 * 1000;
+
+    // Single thread: pastes are delivered to JS in the order they happened
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private final WeakReference<ReactAztecText> mViewReference;
+    private final int mReuseGeneration;
+    private final Context mContext;
+    private final ClipData mClipData;
+    private final boolean mIsPastedAsPlainText;
+    private final int mMaxLength;
+    private final int mInlineThreshold;
+
+    private ReactAztecPasteTask(ReactAztecText view, ClipData clipData, boolean isPastedAsPlainText) {
+        mViewReference = new WeakReference<>(view);
+        mReuseGeneration = view.getReuseGeneration();
+        mContext = view.getContext().getApplicationContext();
+        mClipData = clipData;
+        mIsPastedAsPlainText = isPastedAsPlainText;
+        mMaxLength = view.pasteMaxLength;
+        mInlineThreshold = view.pasteInlineThreshold;
+    }
+
+    static void execute(ReactAztecText view, ClipData clipData, boolean isPastedAsPlainText) {
+        sExecutor.execute(new ReactAztecPasteTask(view, clipData, isPastedAsPlainText));
+    }
+
+    static File getCacheDir(Context context) {
+        return new File(context.getCacheDir(), PASTE_CACHE_DIR);
+    }
+
+    @Override
+    public void run() {
+        // Files of the previous pastes are deleted by JS once read, only the ones it dropped are left
+        clearStaleFiles();
+
+        StringBuilder text = new StringBuilder();
+        StringBuilder html = new StringBuilder();
+        boolean isTextTruncated = false;
+        boolean isHtmlTruncated = mIsPastedAsPlainText;
+
+        int itemCount = mClipData.getItemCount();
+        for (int i = 0; i < itemCount && !(isTextTruncated && isHtmlTruncated); i++) {
+            ClipData.Item item = mClipData.getItemAt(i);
+            if (!isTextTruncated) {
+                isTextTruncated = appendLimited(text, item.coerceToText(mContext), false);
+            }
+            if (!isHtmlTruncated) {
+                isHtmlTruncated = appendLimited(html, item.coerceToHtmlText(mContext), true);
+            }
+        }
+
+        // measured before the large data gets sent by reference
+        final int pastedLength = text.length() + html.length();
+        final String pastedTextUri = writeToCacheIfLarge(text, "txt");
+        final String pastedHtmlUri = writeToCacheIfLarge(html, "html");
+        final String pastedText = pastedTextUri == null ? normalizeLineBreaks(text) : "";
+        final String pastedHtml = pastedHtmlUri == null ? normalizeLineBreaks(html) : "";
+        final boolean isPasteTruncated = isTextTruncated || (!mIsPastedAsPlainText && isHtmlTruncated);
+
+        UiThreadUtil.runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                ReactAztecText view = mViewReference.get();
+                if (view != null) {
+                    view.dispatchPasteEvent(mReuseGeneration, pastedText, pastedHtml, pastedTextUri, pastedHtmlUri,
+                            pastedLength, isPasteTruncated);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if the data didn't fit within the max length and got truncated
+     */
+    private boolean appendLimited(StringBuilder builder, @Nullable CharSequence data, boolean isHtml) {
+        if (data == null) {
+            return false;
+        }
+        if (mMaxLength <= 0 || builder.length() + data.length() <= mMaxLength) {
+            builder.append(data);
+            return false;
+        }
+        builder.append(data, 0, getSafeCutIndex(data, Math.max(0, mMaxLength - builder.length()), isHtml));
+        return true;
+    }
+
+    /**
+     * @return the highest index up to `end` the data can be cut at without splitting a surrogate pair or,
+     * for HTML, a tag
+     */
+    static int getSafeCutIndex(CharSequence data, int end, boolean isHtml) {
+        if (end > 0 && end < data.length() && Character.isHighSurrogate(data.charAt(end - 1))) {
+            end--;
+        }
+        if (isHtml) {
+            for (int i = end - 1; i >= 0; i--) {
+                char c = data.charAt(i);
+                if (c == '>') {
+                    break;
+                }
+                if (c == '<') {
+                    // in the middle of a tag, cut right before it
+                    end = i;
+                    break;
+                }
+            }
+        }
+        return end;
+    }
+
+    private static String normalizeLineBreaks(StringBuilder builder) {
+        return builder.indexOf("\r") < 0 ? builder.toString() : builder.toString().replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    @Nullable
+    private String writeToCacheIfLarge(StringBuilder data, String extension) {
+        if (mInlineThreshold <= 0 || data.length() <= mInlineThreshold) {
+            return null;
+        }
+
+        File dir = getCacheDir(mContext);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.w(TAG, "Can't create the paste cache dir, sending the pasted data inline");
+            return null;
+        }
+
+        Writer writer = null;
+        try {
+            File file = File.createTempFile("paste", "." + extension, dir);
+            writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            writer.append(normalizeLineBreaks(data));
+            writer.flush();
+            return Uri.fromFile(file).toString();
+        } catch (IOException e) {
+            Log.w(TAG, "Can't write the pasted data to the cache, sending it inline", e);
+            return null;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // nothing else we can do
+                }
+            }
+        }
+    }
+
+    private void clearStaleFiles() {
+        File[] files = getCacheDir(mContext).listFiles();
+        if (files == null) {
+            return;
+        }
+        long staleBefore = System.currentTimeMillis() - STALE_FILE_AGE_MS;
+        for (File file : files) {
+            if (file.lastModified() < staleBefore) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+}
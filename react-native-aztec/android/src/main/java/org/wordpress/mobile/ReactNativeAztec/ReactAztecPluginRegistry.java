@@ -0,0 +1,60 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+
+import org.wordpress.aztec.glideloader.GlideImageLoader;
+import org.wordpress.aztec.glideloader.GlideVideoThumbnailLoader;
+import org.wordpress.aztec.plugins.CssUnderlinePlugin;
+import org.wordpress.aztec.plugins.shortcodes.AudioShortcodePlugin;
+import org.wordpress.aztec.plugins.shortcodes.CaptionShortcodePlugin;
+import org.wordpress.aztec.plugins.shortcodes.VideoShortcodePlugin;
+import org.wordpress.aztec.plugins.wpcomments.HiddenGutenbergPlugin;
+import org.wordpress.aztec.plugins.wpcomments.WordPressCommentsPlugin;
+import org.wordpress.aztec.plugins.wpcomments.toolbar.MoreToolbarButton;
+
+/**
+ * Process-wide registry of the plugins and media loaders used by the full visual editor mode
+ * (see ReactAztecManager.disableGBMode).
+ *
+ * The stateless ones are shared by all the Aztec views. The ones bound to a view are still created per view.
+ */
+final class ReactAztecPluginRegistry {
+
+    private static final VideoShortcodePlugin sVideoShortcodePlugin = new VideoShortcodePlugin();
+    private static final AudioShortcodePlugin sAudioShortcodePlugin = new AudioShortcodePlugin();
+    private static final CssUnderlinePlugin sCssUnderlinePlugin = new CssUnderlinePlugin();
+
+    private static @Nullable GlideImageLoader sImageLoader;
+    private static @Nullable GlideVideoThumbnailLoader sVideoThumbnailLoader;
+
+    private ReactAztecPluginRegistry() {
+    }
+
+    static void addFullEditorPlugins(ReactAztecText view) {
+        view.addPlugin(new WordPressCommentsPlugin(view));
+        view.addPlugin(new MoreToolbarButton(view));
+        view.addPlugin(new CaptionShortcodePlugin(view));
+        view.addPlugin(sVideoShortcodePlugin);
+        view.addPlugin(sAudioShortcodePlugin);
+        view.addPlugin(new HiddenGutenbergPlugin(view));
+        view.addPlugin(sCssUnderlinePlugin);
+        view.setImageGetter(getImageLoader(view.getContext()));
+        view.setVideoThumbnailGetter(getVideoThumbnailLoader(view.getContext()));
+    }
+
+    private static synchronized GlideImageLoader getImageLoader(Context context) {
+        if (sImageLoader == null) {
+            // the application context, so the shared loader doesn't hold on to any root view
+            sImageLoader = new GlideImageLoader(context.getApplicationContext());
+        }
+        return sImageLoader;
+    }
+
+    private static synchronized GlideVideoThumbnailLoader getVideoThumbnailLoader(Context context) {
+        if (sVideoThumbnailLoader == null) {
+            sVideoThumbnailLoader = new GlideVideoThumbnailLoader(context.getApplicationContext());
+        }
+        return sVideoThumbnailLoader;
+    }
+}
@@ -1,5 +1,7 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
+import android.support.v4.util.Pools;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
@@ -13,19 +15,41 @@ class ReactAztecSelectionChangeEvent extends Event<ReactAztecSelectionChangeEven
 
     private static final String EVENT_NAME = "topSelectionChange";
 
+    private static final Pools.SynchronizedPool<ReactAztecSelectionChangeEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(4);
+
     private String mText;
     private int mSelectionStart;
     private int mSelectionEnd;
     private int mEventCount;
 
-    public ReactAztecSelectionChangeEvent(int viewId, String text, int selectionStart, int selectionEnd, int eventCount) {
-        super(viewId);
+    private ReactAztecSelectionChangeEvent() {
+    }
+
+    public static ReactAztecSelectionChangeEvent obtain(int viewId, String text, int selectionStart,
+                                                        int selectionEnd, int eventCount) {
+        ReactAztecSelectionChangeEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new ReactAztecSelectionChangeEvent();
+        }
+        event.init(viewId, text, selectionStart, selectionEnd, eventCount);
+        return event;
+    }
+
+    private void init(int viewId, String text, int selectionStart, int selectionEnd, int eventCount) {
+        super.init(viewId);
         mText = text;
         mSelectionStart = selectionStart;
         mSelectionEnd = selectionEnd;
         mEventCount = eventCount;
     }
 
+    @Override
+    public void onDispose() {
+        mText = null;
+        EVENTS_POOL.release(this);
+    }
+
     @Override
     public String getEventName() {
         return EVENT_NAME;
@@ -33,7 +57,20 @@ class ReactAztecSelectionChangeEvent extends Event<ReactAztecSelectionChangeEven
 
     @Override
     public boolean canCoalesce() {
-        return false;
+        // Only the newest selection (and the content that goes with it) is of interest to JS
+        return true;
+    }
+
+    @Override
+    public short getCoalescingKey() {
+        // All the selection changes of a view are merged together, the event name and view tag already tell them apart
+        return 0;
+    }
+
+    @Override
+    public ReactAztecSelectionChangeEvent coalesce(ReactAztecSelectionChangeEvent otherEvent) {
+        // Last wins. Several events can share the same timestamp during a drag, so rely on the event counter instead.
+        return mEventCount >= otherEvent.mEventCount ? this : otherEvent;
     }
 
     @Override
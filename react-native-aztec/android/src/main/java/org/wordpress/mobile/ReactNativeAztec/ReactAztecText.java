@@ -1,24 +1,32 @@
 package org.wordpress.mobile.ReactNativeAztec;
 
-import android.content.ClipData;
 import android.content.ClipboardManager;
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
 import android.support.annotation.Nullable;
 import android.text.Editable;
 import android.text.InputType;
+import android.text.NoCopySpan;
 import android.text.Selection;
+import android.text.SpanWatcher;
 import android.text.Spannable;
+import android.text.Spanned;
 import android.text.TextWatcher;
 import android.text.method.ArrowKeyMovementMethod;
+import android.util.TypedValue;
 import android.view.View;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.TextView;
 
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.events.Event;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.views.textinput.ContentSizeWatcher;
 import com.facebook.react.views.textinput.ReactTextInputLocalData;
@@ -29,14 +37,13 @@ import org.wordpress.aztec.AztecTextFormat;
 import org.wordpress.aztec.ITextFormat;
 import org.wordpress.aztec.plugins.IAztecPlugin;
 import org.wordpress.aztec.plugins.IToolbarButton;
+import org.wordpress.aztec.spans.AztecStrikethroughSpan;
+import org.wordpress.aztec.spans.AztecStyleSpan;
+import org.wordpress.aztec.spans.AztecURLSpan;
+import org.wordpress.aztec.spans.IAztecSpan;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.HashMap;
-
-import static android.content.ClipData.*;
+import java.util.List;
 
 public class ReactAztecText extends AztecText {
 
@@ -50,39 +57,240 @@ public class ReactAztecText extends AztecText {
     private boolean mIsJSSettingFocus = false;
     private @Nullable ArrayList<TextWatcher> mListeners;
     private @Nullable TextWatcherDelegator mTextWatcherDelegator;
+    // The watcher sending the text changes to JS, set by the manager
+    private @Nullable TextWatcher mJSTextWatcher;
+    // Native undo/redo history, only kept when JS gives it a byte budget
+    private @Nullable ReactAztecEditHistory mEditHistory;
     private @Nullable ContentSizeWatcher mContentSizeWatcher;
     private @Nullable ScrollWatcher mScrollWatcher;
 
+    // Policies of the events JS can ask to throttle, see ReactAztecEventThrottle
+    int textChangeThrottle = ReactAztecEventThrottle.IMMEDIATE;
+    int selectionChangeThrottle = ReactAztecEventThrottle.IMMEDIATE;
+    int scrollThrottle = ReactAztecEventThrottle.IMMEDIATE;
+    int contentSizeChangeThrottle = ReactAztecEventThrottle.PER_FRAME;
+
+    // Throttled text changes are sent as snapshots, the deltas in between are never sent
+    private final ReactAztecEventThrottle mTextChangeThrottle = new ReactAztecEventThrottle(this) {
+        @Override
+        void emit() {
+            mNeedsTextSnapshot = false;
+            dispatchAztecEvent(getEventDispatcher(),
+                    ReactAztecTextChangeEvent.snapshot(getId(), toCachedHtml(), mNativeEventCount,
+                            mLastThrottledTextEventCount, shouldEmitTextDeltas));
+            mLastThrottledTextEventCount = mNativeEventCount;
+        }
+    };
+    private int mLastThrottledTextEventCount = 0;
+
+    private final ReactAztecEventThrottle mSelectionChangeThrottle = new ReactAztecEventThrottle(this) {
+        @Override
+        void emit() {
+            dispatchSelectionChange(getSelectionStart(), getSelectionEnd());
+        }
+    };
+
+    private final ReactAztecEventThrottle mScrollThrottle = new ReactAztecEventThrottle(this) {
+        @Override
+        void emit() {
+            if (mScrollWatcher != null) {
+                mScrollWatcher.onScrollChanged(getScrollX(), getScrollY(), mReportedScrollX, mReportedScrollY);
+            }
+            mReportedScrollX = getScrollX();
+            mReportedScrollY = getScrollY();
+        }
+    };
+    private int mReportedScrollX = 0;
+    private int mReportedScrollY = 0;
+
+    private final ReactAztecEventThrottle mContentSizeThrottle = new ReactAztecEventThrottle(this) {
+        @Override
+        void emit() {
+            if (mContentSizeWatcher != null) {
+                mContentSizeWatcher.onLayout();
+            }
+        }
+    };
+
     // FIXME: Used in `incrementAndGetEventCounter` but never read. I guess we can get rid of it, but before this
     // check when it's used in EditText in RN. (maybe tests?)
     int mNativeEventCount = 0;
 
-    String lastSentFormattingOptionsEventString = "";
+    // Bumped whenever the view gets dropped to be reused, so work started for the previous block can tell it is stale
+    private int mReuseGeneration = 0;
+
+    int lastSentFormats = FORMAT_NONE;
     boolean shouldHandleOnEnter = false;
     boolean shouldHandleOnBackspace = false;
     boolean shouldHandleOnPaste = false;
+    // Size limits (in chars) of the pasted data, see ReactAztecPasteTask. Disabled when 0.
+    int pasteMaxLength = 0;
+    int pasteInlineThreshold = 0;
     boolean shouldHandleOnSelectionChange = false;
     boolean shouldHandleActiveFormatsChange = false;
+    boolean shouldEmitTextDeltas = false;
+    // When emitting deltas, the next text change is sent as a full snapshot if this is set
+    private boolean mNeedsTextSnapshot = true;
+
+    // Plugins added on top of the default ones (see ReactAztecManager.disableGBMode) can't be removed, so a view
+    // that got them can't be pooled.
+    private boolean mHasExtraPlugins = false;
+
+    // Values set up by the constructor, restored when the view gets reused, see resetForReuse()
+    private final ColorStateList mDefaultTextColors;
+    private final ColorStateList mDefaultHintTextColors;
+    private final float mDefaultTextSize;
+    private final Typeface mDefaultTypeface;
+    private final int mDefaultMaxImagesWidth;
+    private final int mDefaultMinImagesWidth;
+    private final @Nullable Drawable.ConstantState mDefaultBackground;
+
+    // Font props received from JS, resolved into a single Typeface once per props update,
+    // see ReactAztecManager.updateTypefaceIfNeeded(). Weight and style use the Typeface style constants, -1 if unset.
+    @Nullable String fontFamily;
+    int fontWeight = -1;
+    int fontStyle = -1;
+    boolean fontPropsChanged = false;
 
     // This optional variable holds the outer HTML tag that will be added to the text when the user start typing in it
     // This is required to keep placeholder text working, and start typing with styled text.
     // Ref: https://github.com/wordpress-mobile/gutenberg-mobile/issues/707
     private String mTagName = "";
 
-    private static final HashMap<ITextFormat, String> typingFormatsMap = new HashMap<ITextFormat, String>() {
-        {
-            put(AztecTextFormat.FORMAT_BOLD, "bold");
-            put(AztecTextFormat.FORMAT_STRONG, "bold");
-            put(AztecTextFormat.FORMAT_EMPHASIS, "italic");
-            put(AztecTextFormat.FORMAT_ITALIC, "italic");
-            put(AztecTextFormat.FORMAT_CITE, "italic");
-            put(AztecTextFormat.FORMAT_STRIKETHROUGH, "strikethrough");
-        }
+    // Versioned cache of `toHtml(false)`. `mContentVersion` is bumped by the HtmlCacheInvalidator on every text or
+    // span mutation of the Editable, so all the events fired for a single edit share one serialization.
+    private final HtmlCacheInvalidator mHtmlCacheInvalidator = new HtmlCacheInvalidator();
+    private int mContentVersion = 0;
+    private int mCachedHtmlVersion = -1;
+    private @Nullable String mCachedHtml;
+    private boolean mIsSerializingHtml = false;
+    private int mHtmlCacheHitCount = 0;
+    private int mHtmlCacheMissCount = 0;
+
+    // Last HTML applied from JS and the content version it produced. Along with the HTML cache (what was last
+    // emitted), it lets us recognize JS echoing back content the view already shows.
+    private @Nullable String mLastAppliedHtml;
+    private int mLastAppliedHtmlVersion = -1;
+    private int mSkippedSetTextCount = 0;
+
+    // HTML from JS longer than this (in chars) is parsed on a worker thread instead of during the props update,
+    // see setHtmlFromJSDeferred(). Disabled when 0.
+    int deferredParseThreshold = 0;
+    // `text` prop received in the current props update, see ReactAztecManager.onAfterUpdateTransaction
+    @Nullable ReadableMap pendingTextFromJS;
+    // Bumped whenever the parse on its way becomes stale, read by the worker to skip it
+    private volatile int mHtmlParseGeneration = 0;
+    private boolean mIsHtmlParsePending = false;
+    private int mDeferredSelectionStart = -1;
+    private int mDeferredSelectionEnd = -1;
+
+    // Times local data got pushed to the shadow node, see setIntrinsicContentSize()
+    private int mIntrinsicContentSizeUpdateCount = 0;
+
+    // Layout last seen by the content size watcher. Typing within a line keeps all of them, see onContentSizeChange()
+    private int mLastReportedLineCount = -1;
+    private int mLastReportedWidth = -1;
+    private int mLastReportedHeight = -1;
+    private int mLastReportedLayoutHeight = -1;
+    private int mContentSizeCheckSkippedCount = 0;
+
+    // The typing formats tracked by the toolbar and the `activeFormats` prop, as a bitmask. To track a new format
+    // (e.g. link or code), give it the next bit and fill in the three tables below.
+    static final int FORMAT_NONE = 0;
+    static final int FORMAT_BOLD = 1;
+    static final int FORMAT_ITALIC = 1 << 1;
+    static final int FORMAT_STRIKETHROUGH = 1 << 2;
+    private static final int FORMAT_COUNT = 3;
+
+    // Name of each format bit, as used on the JS side, indexed by bit position
+    private static final String[] FORMAT_NAMES = {
+            "bold",
+            "italic",
+            "strikethrough"
     };
 
+    // Format applied when JS turns a format bit on, indexed by bit position
+    private static final ITextFormat[] FORMAT_TYPING_STYLES = {
+            AztecTextFormat.FORMAT_STRONG,
+            AztecTextFormat.FORMAT_EMPHASIS,
+            AztecTextFormat.FORMAT_STRIKETHROUGH
+    };
+
+    // Format bit of each AztecTextFormat, indexed by ordinal
+    private static final int[] FORMAT_BITS = new int[AztecTextFormat.values().length];
+    static {
+        FORMAT_BITS[AztecTextFormat.FORMAT_BOLD.ordinal()] = FORMAT_BOLD;
+        FORMAT_BITS[AztecTextFormat.FORMAT_STRONG.ordinal()] = FORMAT_BOLD;
+        FORMAT_BITS[AztecTextFormat.FORMAT_EMPHASIS.ordinal()] = FORMAT_ITALIC;
+        FORMAT_BITS[AztecTextFormat.FORMAT_ITALIC.ordinal()] = FORMAT_ITALIC;
+        FORMAT_BITS[AztecTextFormat.FORMAT_CITE.ordinal()] = FORMAT_ITALIC;
+        FORMAT_BITS[AztecTextFormat.FORMAT_STRIKETHROUGH.ordinal()] = FORMAT_STRIKETHROUGH;
+    }
+
+    static int getFormatBit(ITextFormat format) {
+        return format instanceof AztecTextFormat ? FORMAT_BITS[((AztecTextFormat) format).ordinal()] : FORMAT_NONE;
+    }
+
+    static int getFormatBit(String formatName) {
+        for (int i = 0; i < FORMAT_COUNT; i++) {
+            if (FORMAT_NAMES[i].equals(formatName)) {
+                return 1 << i;
+            }
+        }
+        return FORMAT_NONE;
+    }
+
+    static int getFormatsMask(List<ITextFormat> formats) {
+        int mask = FORMAT_NONE;
+        // indexed loop, no iterator allocation on the selection change path
+        for (int i = 0; i < formats.size(); i++) {
+            mask |= getFormatBit(formats.get(i));
+        }
+        return mask;
+    }
+
+    // Names of the formats of each mask, built once since they go out with every format and text delta event.
+    // Shared, never to be modified.
+    private static final String[][] FORMAT_NAMES_BY_MASK = new String[1 << FORMAT_COUNT][];
+    static {
+        for (int mask = 0; mask < FORMAT_NAMES_BY_MASK.length; mask++) {
+            String[] names = new String[Integer.bitCount(mask)];
+            int index = 0;
+            for (int i = 0; i < FORMAT_COUNT; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    names[index++] = FORMAT_NAMES[i];
+                }
+            }
+            FORMAT_NAMES_BY_MASK[mask] = names;
+        }
+    }
+
+    /**
+     * @return the names of the formats of the mask, not to be modified
+     */
+    static String[] getFormatNames(int mask) {
+        return FORMAT_NAMES_BY_MASK[mask];
+    }
+
     public ReactAztecText(ThemedReactContext reactContext) {
         super(reactContext);
 
+        // Attach the cache invalidator to every Editable the view creates, so it survives `fromHtml`/`setText` calls.
+        setEditableFactory(new Editable.Factory() {
+            @Override
+            public Editable newEditable(CharSequence source) {
+                // A new Editable replaces the whole content, whatever got serialized before is stale
+                invalidateHtmlCache();
+                Editable editable = super.newEditable(source);
+                editable.setSpan(mHtmlCacheInvalidator, 0, editable.length(),
+                        Spanned.SPAN_INCLUSIVE_INCLUSIVE | HtmlCacheInvalidator.PRIORITY);
+                return editable;
+            }
+        });
+        // The Editable set up by the super constructor was created before the factory above was in place.
+        getText().setSpan(mHtmlCacheInvalidator, 0, getText().length(),
+                Spanned.SPAN_INCLUSIVE_INCLUSIVE | HtmlCacheInvalidator.PRIORITY);
+
         // don't auto-focus when Aztec becomes visible.
         // Needed on rotation and multiple Aztec instances to avoid losing the exact care position.
         setFocusOnVisible(false);
@@ -115,6 +323,112 @@ public class ReactAztecText extends AztecText {
             }
         });
         this.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_CAP_SENTENCES | InputType.TYPE_TEXT_FLAG_MULTI_LINE);
+
+        mDefaultTextColors = getTextColors();
+        mDefaultHintTextColors = getHintTextColors();
+        mDefaultTextSize = getTextSize();
+        mDefaultTypeface = getTypeface();
+        mDefaultMaxImagesWidth = getMaxImagesWidth();
+        mDefaultMinImagesWidth = getMinImagesWidth();
+        Drawable background = getBackground();
+        mDefaultBackground = background != null ? background.getConstantState() : null;
+    }
+
+    boolean isReusable() {
+        return !mHasExtraPlugins;
+    }
+
+    int getReuseGeneration() {
+        return mReuseGeneration;
+    }
+
+    Typeface getDefaultTypeface() {
+        return mDefaultTypeface;
+    }
+
+    boolean hasExtraPlugins() {
+        return mHasExtraPlugins;
+    }
+
+    /**
+     * Bring a view dropped by RN back to the state of a freshly created one, so it can be handed out again by
+     * {@link ReactAztecViewPool}. Props not set by JS on the next mount must not leak from the previous block.
+     */
+    void resetForReuse() {
+        mReuseGeneration++;
+        cancelDeferredHtml();
+        cancelThrottledEvents();
+        pendingTextFromJS = null;
+
+        // stop reporting anything to JS before touching the focus or the content, the tag is gone on its side
+        shouldHandleOnEnter = false;
+        shouldHandleOnBackspace = false;
+        shouldHandleOnPaste = false;
+        shouldHandleOnSelectionChange = false;
+        shouldHandleActiveFormatsChange = false;
+        setShouldEmitTextDeltas(false);
+        setContentSizeWatcher(null);
+        setScrollWatcher(null);
+        setJSTextWatcher(null);
+        setUndoHistoryBudget(0);
+        setOnFocusChangeListener(null);
+
+        if (isFocused()) {
+            clearFocus();
+        }
+        setFocusableInTouchMode(true);
+        setFocusable(true);
+
+        setIsSettingTextFromJS(true);
+        disableOnSelectionListener();
+        parseHtml("", false);
+        setSelectedStyles(new ArrayList<ITextFormat>());
+        enableOnSelectionListener();
+        setIsSettingTextFromJS(false);
+
+        mNativeEventCount = 0;
+        lastSentFormats = FORMAT_NONE;
+        pasteMaxLength = 0;
+        pasteInlineThreshold = 0;
+        deferredParseThreshold = 0;
+        textChangeThrottle = ReactAztecEventThrottle.IMMEDIATE;
+        selectionChangeThrottle = ReactAztecEventThrottle.IMMEDIATE;
+        scrollThrottle = ReactAztecEventThrottle.IMMEDIATE;
+        contentSizeChangeThrottle = ReactAztecEventThrottle.PER_FRAME;
+        mLastThrottledTextEventCount = 0;
+        mReportedScrollX = 0;
+        mReportedScrollY = 0;
+        mTagName = "";
+        mLastAppliedHtml = null;
+        if (ReactAztecMetrics.isEnabled()) {
+            ReactAztecMetrics.resetView(this);
+        }
+
+        setHint(null);
+        setTextColor(mDefaultTextColors);
+        setHintTextColor(mDefaultHintTextColors);
+        setTextSize(TypedValue.COMPLEX_UNIT_PX, mDefaultTextSize);
+        fontFamily = null;
+        fontWeight = -1;
+        fontStyle = -1;
+        fontPropsChanged = false;
+        setTypeface(mDefaultTypeface);
+        setMaxImagesWidth(mDefaultMaxImagesWidth);
+        setMinImagesWidth(mDefaultMinImagesWidth);
+
+        // view props handled by BaseViewManager, the background goes back to the one of the theme
+        setBackground(mDefaultBackground != null ? mDefaultBackground.newDrawable(getResources()) : null);
+        setAlpha(1);
+        setTranslationX(0);
+        setTranslationY(0);
+        setRotation(0);
+        setRotationX(0);
+        setRotationY(0);
+        setScaleX(1);
+        setScaleY(1);
+        setElevation(0);
+        setContentDescription(null);
+        setTag(null);
     }
 
     private void forceCaretAtStartOnTakeFocus() {
@@ -149,6 +463,156 @@ public class ReactAztecText extends AztecText {
         if (plugin instanceof IToolbarButton && getToolbar() != null ) {
             getToolbar().addButton((IToolbarButton)plugin);
         }
+        mHasExtraPlugins = true;
+        // plugins take part in the serialization, so whatever we have cached is stale now
+        invalidateHtmlCache();
+    }
+
+    /**
+     * Same as `toHtml(false)`, but served from a cache that is only invalidated by actual text or span mutations.
+     * Use this for anything that ships the current content to JS.
+     */
+    public String toCachedHtml() {
+        if (mCachedHtml != null && mCachedHtmlVersion == mContentVersion) {
+            mHtmlCacheHitCount++;
+            return mCachedHtml;
+        }
+
+        mHtmlCacheMissCount++;
+        // Aztec may touch spans while serializing, that must not invalidate the result we are about to store.
+        mIsSerializingHtml = true;
+        boolean measure = ReactAztecMetrics.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
+        try {
+            mCachedHtml = toHtml(false);
+        } finally {
+            mIsSerializingHtml = false;
+        }
+        if (measure) {
+            ReactAztecMetrics.recordToHtml(this, System.nanoTime() - start);
+        }
+        mCachedHtmlVersion = mContentVersion;
+        return mCachedHtml;
+    }
+
+    /**
+     * Returns true if the given HTML is the one last emitted to or applied from JS, and the content didn't change
+     * since then. Hashes are compared first, String caches them so the full comparison only runs on a likely match.
+     */
+    boolean isShowingHtml(String html) {
+        return isSameHtml(html, mCachedHtml, mCachedHtmlVersion) || isSameHtml(html, mLastAppliedHtml, mLastAppliedHtmlVersion);
+    }
+
+    private boolean isSameHtml(String html, @Nullable String syncedHtml, int syncedVersion) {
+        return syncedHtml != null
+                && syncedVersion == mContentVersion
+                && syncedHtml.length() == html.length()
+                && syncedHtml.hashCode() == html.hashCode()
+                && syncedHtml.equals(html);
+    }
+
+    void setLastAppliedHtml(String html) {
+        mLastAppliedHtml = html;
+        mLastAppliedHtmlVersion = mContentVersion;
+    }
+
+    void onSetTextSkipped() {
+        mSkippedSetTextCount++;
+    }
+
+    public int getSkippedSetTextCount() {
+        return mSkippedSetTextCount;
+    }
+
+    /**
+     * Same as `fromHtml`, timed when metrics are enabled (see {@link ReactAztecMetrics}).
+     */
+    void parseHtml(String html, boolean isInit) {
+        if (mEditHistory != null) {
+            // the whole content gets replaced, the recorded edits don't apply to it anymore
+            mEditHistory.beginUntrackedChange();
+        }
+        try {
+            if (!ReactAztecMetrics.isEnabled()) {
+                fromHtml(html, isInit);
+                return;
+            }
+            long start = System.nanoTime();
+            fromHtml(html, isInit);
+            ReactAztecMetrics.recordFromHtml(this, System.nanoTime() - start);
+        } finally {
+            if (mEditHistory != null) {
+                mEditHistory.endUntrackedChange();
+            }
+        }
+    }
+
+    /**
+     * Keep a native undo/redo history of up to the given size in bytes, see {@link ReactAztecEditHistory}.
+     * 0 disables it and drops the recorded edits.
+     */
+    void setUndoHistoryBudget(int byteBudget) {
+        if (byteBudget <= 0) {
+            if (mEditHistory != null) {
+                removeTextChangedListener(mEditHistory);
+                mEditHistory = null;
+            }
+        } else if (mEditHistory == null) {
+            mEditHistory = new ReactAztecEditHistory(byteBudget);
+            addTextChangedListener(mEditHistory);
+        } else {
+            mEditHistory.setByteBudget(byteBudget);
+        }
+    }
+
+    void undo() {
+        if (mEditHistory != null) {
+            restoreCursor(mEditHistory.undo(getText()));
+        }
+    }
+
+    void redo() {
+        if (mEditHistory != null) {
+            restoreCursor(mEditHistory.redo(getText()));
+        }
+    }
+
+    void clearHistory() {
+        if (mEditHistory != null) {
+            mEditHistory.clear();
+        }
+    }
+
+    private void restoreCursor(int cursor) {
+        if (cursor >= 0) {
+            setSelection(Math.min(cursor, length()));
+        }
+    }
+
+    /**
+     * Dispatch an event of this view to JS, counted per event type when metrics are enabled.
+     */
+    void dispatchAztecEvent(EventDispatcher eventDispatcher, Event event) {
+        if (ReactAztecMetrics.isEnabled()) {
+            ReactAztecMetrics.recordEvent(this, event.getEventName());
+        }
+        eventDispatcher.dispatchEvent(event);
+    }
+
+    void invalidateHtmlCache() {
+        mContentVersion++;
+    }
+
+    public int getContentVersion() {
+        return mContentVersion;
+    }
+
+    public int getHtmlCacheHitCount() {
+        return mHtmlCacheHitCount;
+    }
+
+    public int getHtmlCacheMissCount() {
+        return mHtmlCacheMissCount;
     }
 
     @Override
@@ -218,32 +682,96 @@ public class ReactAztecText extends AztecText {
         super.onScrollChanged(horiz, vert, oldHoriz, oldVert);
 
         if (mScrollWatcher != null) {
-            mScrollWatcher.onScrollChanged(horiz, vert, oldHoriz, oldVert);
+            if (scrollThrottle == ReactAztecEventThrottle.IMMEDIATE) {
+                mScrollWatcher.onScrollChanged(horiz, vert, oldHoriz, oldVert);
+                mReportedScrollX = horiz;
+                mReportedScrollY = vert;
+            } else {
+                mScrollThrottle.request(scrollThrottle);
+            }
         }
     }
 
     public void setContentSizeWatcher(ContentSizeWatcher contentSizeWatcher) {
         mContentSizeWatcher = contentSizeWatcher;
+        // a new watcher has nothing reported yet
+        mLastReportedLineCount = -1;
+        if (mContentSizeWatcher == null) {
+            mContentSizeThrottle.cancel();
+        }
     }
 
     private void onContentSizeChange() {
         if (mContentSizeWatcher != null) {
-            new java.util.Timer().schedule(
-                    new java.util.TimerTask() {
-                        @Override
-                        public void run() {
-                            if (mContentSizeWatcher != null) {
-                                mContentSizeWatcher.onLayout();
-
-                            }
-                        }
-                    },
-                    500
-            );
+            if (hasContentLayoutChanged()) {
+                mContentSizeThrottle.request(contentSizeChangeThrottle);
+            } else {
+                mContentSizeCheckSkippedCount++;
+            }
         }
         setIntrinsicContentSize();
     }
 
+    /**
+     * The content size only changes when the text wraps to a different number of lines, or the view or the height
+     * of its lines (e.g. an image got loaded) change. Compare those, all cheap to read off the current layout,
+     * so typing within a line doesn't schedule a measurement.
+     */
+    private boolean hasContentLayoutChanged() {
+        int lineCount = getLineCount();
+        int layoutHeight = getLayout() != null ? getLayout().getHeight() : 0;
+        if (mLastReportedLineCount == lineCount
+                && mLastReportedWidth == getWidth()
+                && mLastReportedHeight == getHeight()
+                && mLastReportedLayoutHeight == layoutHeight) {
+            return false;
+        }
+
+        mLastReportedLineCount = lineCount;
+        mLastReportedWidth = getWidth();
+        mLastReportedHeight = getHeight();
+        mLastReportedLayoutHeight = layoutHeight;
+        return true;
+    }
+
+    public int getContentSizeCheckSkippedCount() {
+        return mContentSizeCheckSkippedCount;
+    }
+
+    /**
+     * Hold back this text change if JS asked to throttle them. Returns false if it must be sent right away instead.
+     */
+    boolean throttleTextChange() {
+        if (textChangeThrottle == ReactAztecEventThrottle.IMMEDIATE) {
+            return false;
+        }
+        mTextChangeThrottle.request(textChangeThrottle);
+        return true;
+    }
+
+    /**
+     * Send whatever the throttled events are holding back. JS must see the latest content and selection before
+     * events it reacts to by editing the content (blur, Enter, Backspace, paste).
+     */
+    void flushThrottledEvents() {
+        mTextChangeThrottle.flush();
+        mSelectionChangeThrottle.flush();
+        mScrollThrottle.flush();
+        mContentSizeThrottle.flush();
+    }
+
+    private void cancelThrottledEvents() {
+        mTextChangeThrottle.cancel();
+        mSelectionChangeThrottle.cancel();
+        mScrollThrottle.cancel();
+        mContentSizeThrottle.cancel();
+    }
+
+    private EventDispatcher getEventDispatcher() {
+        ReactContext reactContext = (ReactContext) getContext();
+        return reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
+    }
+
     public void setTagName(@Nullable String tagName) {
         this.mTagName = tagName;
     }
@@ -252,46 +780,25 @@ public class ReactAztecText extends AztecText {
         return this.mTagName;
     }
 
-    private void updateToolbarButtons(int selStart, int selEnd) {
-        ArrayList<ITextFormat> appliedStyles = getAppliedStyles(selStart, selEnd);
-        updateToolbarButtons(appliedStyles);
+    void updateToolbarButtons(int selStart, int selEnd) {
+        updateToolbarButtons(getFormatsMask(getAppliedStyles(selStart, selEnd)));
     }
 
-    private void updateToolbarButtons(ArrayList<ITextFormat> appliedStyles) {
-        // Read the applied styles and get the String list of formatting options
-        LinkedList<String> formattingOptions = new LinkedList<>();
-        for (ITextFormat currentStyle : appliedStyles) {
-            if ((currentStyle == AztecTextFormat.FORMAT_STRONG || currentStyle == AztecTextFormat.FORMAT_BOLD)
-                    && !formattingOptions.contains("bold")) {
-                formattingOptions.add("bold");
-            }
-            if ((currentStyle == AztecTextFormat.FORMAT_ITALIC || currentStyle == AztecTextFormat.FORMAT_CITE)
-                    && !formattingOptions.contains("italic")) {
-                formattingOptions.add("italic");
-            }
-            if (currentStyle == AztecTextFormat.FORMAT_STRIKETHROUGH) {
-                formattingOptions.add("strikethrough");
-            }
-        }
-
+    private void updateToolbarButtons(int formats) {
         // Check if the same formatting event was already sent
-        String newOptionsAsString = "";
-        for (String currentFormatting: formattingOptions) {
-            newOptionsAsString += currentFormatting;
-        }
-        if (newOptionsAsString.equals(lastSentFormattingOptionsEventString)) {
+        if (formats == lastSentFormats) {
             // no need to send any event now
             return;
         }
-        lastSentFormattingOptionsEventString = newOptionsAsString;
+        lastSentFormats = formats;
 
         if (shouldHandleActiveFormatsChange) {
             ReactContext reactContext = (ReactContext) getContext();
             EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
-            eventDispatcher.dispatchEvent(
-                    new ReactAztecFormattingChangeEvent(
+            dispatchAztecEvent(eventDispatcher,
+                    ReactAztecFormattingChangeEvent.obtain(
                             getId(),
-                            formattingOptions.toArray(new String[formattingOptions.size()])
+                            getFormatNames(formats)
                     )
             );
         }
@@ -301,11 +808,19 @@ public class ReactAztecText extends AztecText {
         if (!shouldHandleOnSelectionChange) {
             return;
         }
-        String content = toHtml(false);
+        if (selectionChangeThrottle != ReactAztecEventThrottle.IMMEDIATE) {
+            mSelectionChangeThrottle.request(selectionChangeThrottle);
+            return;
+        }
+        dispatchSelectionChange(selStart, selEnd);
+    }
+
+    private void dispatchSelectionChange(int selStart, int selEnd) {
+        String content = toCachedHtml();
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
-        eventDispatcher.dispatchEvent(
-                new ReactAztecSelectionChangeEvent(getId(), content, selStart, selEnd, incrementAndGetEventCounter())
+        dispatchAztecEvent(eventDispatcher,
+                ReactAztecSelectionChangeEvent.obtain(getId(), content, selStart, selEnd, incrementAndGetEventCounter())
         );
     }
 
@@ -314,19 +829,42 @@ public class ReactAztecText extends AztecText {
         onContentSizeChange();
     }
 
+    /**
+     * Pushed on every layout, even when the content size event is skipped: the local data carries the text the
+     * shadow node measures, not just its size.
+     */
     private void setIntrinsicContentSize() {
+        mIntrinsicContentSizeUpdateCount++;
         ReactContext reactContext = (ReactContext) getContext();
         UIManagerModule uiManager = reactContext.getNativeModule(UIManagerModule.class);
         final ReactTextInputLocalData localData = new ReactTextInputLocalData(this);
         uiManager.setViewLocalData(getId(), localData);
     }
 
+    public int getIntrinsicContentSizeUpdateCount() {
+        return mIntrinsicContentSizeUpdateCount;
+    }
+
     //// Text changed events
 
     public int incrementAndGetEventCounter() {
         return ++mNativeEventCount;
     }
 
+    void setJSTextWatcher(@Nullable TextWatcher watcher) {
+        if (mJSTextWatcher != null) {
+            removeTextChangedListener(mJSTextWatcher);
+        }
+        mJSTextWatcher = watcher;
+        if (mJSTextWatcher != null) {
+            addTextChangedListener(mJSTextWatcher);
+        }
+    }
+
+    @Nullable TextWatcher getJSTextWatcher() {
+        return mJSTextWatcher;
+    }
+
     @Override
     public void addTextChangedListener(TextWatcher watcher) {
         if (mListeners == null) {
@@ -360,16 +898,178 @@ public class ReactAztecText extends AztecText {
         this.mIsSettingTextFromJS = mIsSettingTextFromJS;
     }
 
+    void setHtmlFromJS(String html) {
+        setIsSettingTextFromJS(true);
+        disableOnSelectionListener();
+        parseHtml(html, true);
+        enableOnSelectionListener();
+        setIsSettingTextFromJS(false);
+        setLastAppliedHtml(html);
+    }
+
+    /**
+     * Parse the HTML on a worker thread (see {@link ReactAztecParseTask}), so mounting a block with a long content
+     * (e.g. a classic post) doesn't freeze the props update, then swap the parsed content in on the UI thread.
+     * Only the latest HTML gets applied, a newer `setText` or an edit of the user cancels the pending one via
+     * cancelDeferredHtml(). Views the worker can't parse for (see ReactAztecParseTask.canParse) parse right away.
+     *
+     * @param selectionStart selection to restore once parsed, -1 to keep the current one
+     * @param selectionEnd selection to restore once parsed, -1 to keep the current one
+     */
+    void setHtmlFromJSDeferred(String html, int selectionStart, int selectionEnd) {
+        cancelDeferredHtml();
+        if (!ReactAztecParseTask.canParse(this)) {
+            setHtmlFromJS(html);
+            if (selectionStart >= 0 && selectionEnd >= 0) {
+                setSelection(Math.min(selectionStart, length()), Math.min(selectionEnd, length()));
+            }
+            return;
+        }
+        mIsHtmlParsePending = true;
+        mDeferredSelectionStart = selectionStart;
+        mDeferredSelectionEnd = selectionEnd;
+        ReactAztecParseTask.execute(this, html, mHtmlParseGeneration);
+    }
+
+    void cancelDeferredHtml() {
+        if (mIsHtmlParsePending) {
+            mIsHtmlParsePending = false;
+            mHtmlParseGeneration++;
+        }
+    }
+
+    /**
+     * Safe to call from any thread.
+     */
+    boolean isHtmlParseCurrent(int generation) {
+        return generation == mHtmlParseGeneration;
+    }
+
+    /**
+     * @param parsed the content parsed by the worker, null if it has to be parsed by the view itself
+     */
+    void applyParsedHtml(int generation, String html, @Nullable Editable parsed) {
+        if (!mIsHtmlParsePending || generation != mHtmlParseGeneration) {
+            // a newer `setText` came in meanwhile
+            return;
+        }
+        mIsHtmlParsePending = false;
+
+        if (parsed == null) {
+            setHtmlFromJS(html);
+        } else {
+            // the only styling the editor gives to what the worker parses, see ReactAztecParseTask
+            for (AztecURLSpan span : parsed.getSpans(0, parsed.length(), AztecURLSpan.class)) {
+                span.setLinkStyle(getLinkFormatter().getLinkStyle());
+            }
+            setIsSettingTextFromJS(true);
+            disableOnSelectionListener();
+            if (mEditHistory != null) {
+                // the whole content gets replaced, the recorded edits don't apply to it anymore
+                mEditHistory.beginUntrackedChange();
+            }
+            try {
+                disableTextChangedListener();
+                // copied into a new Editable by the factory, so the HTML cache invalidator comes along
+                setTextKeepState(parsed);
+                enableTextChangedListener();
+            } finally {
+                if (mEditHistory != null) {
+                    mEditHistory.endUntrackedChange();
+                }
+            }
+            enableOnSelectionListener();
+            setIsSettingTextFromJS(false);
+            setLastAppliedHtml(html);
+        }
+
+        if (mDeferredSelectionStart >= 0 && mDeferredSelectionEnd >= 0) {
+            setSelection(Math.min(mDeferredSelectionStart, length()), Math.min(mDeferredSelectionEnd, length()));
+        }
+    }
+
+    void setShouldEmitTextDeltas(boolean emitTextDeltas) {
+        if (emitTextDeltas && !shouldEmitTextDeltas) {
+            // JS has no base to apply the first delta on
+            mNeedsTextSnapshot = true;
+        }
+        shouldEmitTextDeltas = emitTextDeltas;
+    }
+
+    /**
+     * Mark the native content as diverged from what JS can rebuild out of deltas, so the next text change
+     * is sent as a full snapshot.
+     */
+    void invalidateTextDeltas() {
+        mNeedsTextSnapshot = true;
+    }
+
+    boolean consumeNeedsTextSnapshot() {
+        boolean needsTextSnapshot = mNeedsTextSnapshot;
+        mNeedsTextSnapshot = false;
+        return needsTextSnapshot;
+    }
+
+    /**
+     * Send the full HTML to JS right away. Used by JS to recover when it detects a gap in the received deltas.
+     */
+    void dispatchTextSnapshot() {
+        mNeedsTextSnapshot = false;
+        int baseEventCount = mNativeEventCount;
+        ReactContext reactContext = (ReactContext) getContext();
+        EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
+        dispatchAztecEvent(eventDispatcher,
+                ReactAztecTextChangeEvent.snapshot(getId(), toCachedHtml(), incrementAndGetEventCounter(), baseEventCount,
+                        shouldEmitTextDeltas)
+        );
+    }
+
+    /**
+     * Returns true if a delta can describe the [start, end) range of the current text, i.e. it carries no span that
+     * serializes to HTML besides the formats reported by getFormatsInRange(). Spans strictly enclosing the range
+     * (e.g. a link typed in) or covering the whole text (the block's own tag) only stretch or shrink with the edit,
+     * so JS can still follow them. Anything else (links, headings, lists, code... starting or ending in the range)
+     * needs a full snapshot.
+     */
+    boolean canDescribeAsDelta(int start, int end) {
+        Editable text = getText();
+        IAztecSpan[] spans = text.getSpans(start, end, IAztecSpan.class);
+        for (IAztecSpan span : spans) {
+            if (span instanceof AztecStyleSpan || span instanceof AztecStrikethroughSpan) {
+                continue;
+            }
+            int spanStart = text.getSpanStart(span);
+            int spanEnd = text.getSpanEnd(span);
+            boolean isEnclosing = spanStart < start && spanEnd > end;
+            boolean isWholeText = spanStart == 0 && spanEnd == text.length();
+            if (!isEnclosing && !isWholeText) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the names of the formats applied to the whole [start, end) range, as reported to JS.
+     */
+    String[] getFormatsInRange(int start, int end) {
+        if (start >= end) {
+            return getFormatNames(FORMAT_NONE);
+        }
+        return getFormatNames(getFormatsMask(getAppliedStyles(start, end)));
+    }
+
     private boolean onEnter() {
+        flushThrottledEvents();
         disableTextChangedListener();
-        String content = toHtml(false);
+        String content = toCachedHtml();
         int cursorPositionStart = getSelectionStart();
         int cursorPositionEnd = getSelectionEnd();
         enableTextChangedListener();
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
-        eventDispatcher.dispatchEvent(
-                new ReactAztecEnterEvent(getId(), content, cursorPositionStart, cursorPositionEnd, incrementAndGetEventCounter())
+        dispatchAztecEvent(eventDispatcher,
+                ReactAztecEnterEvent.obtain(getId(), content, cursorPositionStart, cursorPositionEnd, incrementAndGetEventCounter())
         );
         return true;
     }
@@ -382,21 +1082,23 @@ public class ReactAztecText extends AztecText {
             return false;
         }
 
+        flushThrottledEvents();
         disableTextChangedListener();
-        String content = toHtml(false);
+        String content = toCachedHtml();
         enableTextChangedListener();
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class).getEventDispatcher();
         // TODO: isRTL? Should be passed here?
-        eventDispatcher.dispatchEvent(
-                new ReactAztecBackspaceEvent(getId(), content, cursorPositionStart, cursorPositionEnd)
+        dispatchAztecEvent(eventDispatcher,
+                ReactAztecBackspaceEvent.obtain(getId(), content, cursorPositionStart, cursorPositionEnd)
         );
         return true;
     }
 
     /**
      * Handle paste action by retrieving clipboard contents and dispatching a
-     * {@link ReactAztecPasteEvent} with the data
+     * {@link ReactAztecPasteEvent} with the data. Coercing the clipboard items can be slow for
+     * large contents, so it happens on a worker thread, see {@link ReactAztecPasteTask}.
      *
      * @param   isPastedAsPlainText boolean indicating whether the paste action chosen was
      *                         "PASTE AS PLAIN TEXT"
@@ -407,58 +1109,126 @@ public class ReactAztecText extends AztecText {
         ClipboardManager clipboardManager = (ClipboardManager) getContext().getSystemService(
                 Context.CLIPBOARD_SERVICE);
 
-        StringBuilder text = new StringBuilder();
-        StringBuilder html = new StringBuilder();
-
         if (clipboardManager != null && clipboardManager.hasPrimaryClip()) {
-            ClipData clipData = clipboardManager.getPrimaryClip();
-            int itemCount = clipData.getItemCount();
-
-            for (int i = 0; i < itemCount; i++) {
-                Item item = clipData.getItemAt(i);
-                text.append(item.coerceToText(getContext()));
-                if (!isPastedAsPlainText) {
-                    html.append(item.coerceToHtmlText(getContext()));
-                }
-            }
+            ReactAztecPasteTask.execute(this, clipboardManager.getPrimaryClip(), isPastedAsPlainText);
+        } else {
+            dispatchPasteEvent(mReuseGeneration, "", "", null, null, 0, false);
         }
+        return true;
+    }
 
-        // temporarily disable listener during call to toHtml()
+    /**
+     * @param reuseGeneration the reuse generation of the view when the paste happened, the paste is dropped if the
+     *                        view got reused for another block since then
+     * @param pastedLength the length of the pasted text and HTML, including the parts sent by file URI
+     */
+    void dispatchPasteEvent(int reuseGeneration, String pastedText, String pastedHtml, @Nullable String pastedTextUri,
+                            @Nullable String pastedHtmlUri, int pastedLength, boolean isTruncated) {
+        if (reuseGeneration != mReuseGeneration) {
+            // the files, if any, are deleted along with the other ones JS never released, see ReactAztecPasteTask
+            return;
+        }
+        if (ReactAztecMetrics.isEnabled()) {
+            ReactAztecMetrics.recordPaste(this, pastedLength, isTruncated);
+        }
+        flushThrottledEvents();
+        // temporarily disable listener during call to toCachedHtml()
         disableTextChangedListener();
-        String content = toHtml(false);
+        String content = toCachedHtml();
         int cursorPositionStart = getSelectionStart();
         int cursorPositionEnd = getSelectionEnd();
         enableTextChangedListener();
         ReactContext reactContext = (ReactContext) getContext();
         EventDispatcher eventDispatcher = reactContext.getNativeModule(UIManagerModule.class)
                 .getEventDispatcher();
-        eventDispatcher.dispatchEvent(new ReactAztecPasteEvent(getId(), content,
-                cursorPositionStart, cursorPositionEnd, text.toString(), html.toString())
+        dispatchAztecEvent(eventDispatcher, ReactAztecPasteEvent.obtain(getId(), content,
+                cursorPositionStart, cursorPositionEnd, pastedText, pastedHtml, pastedTextUri, pastedHtmlUri,
+                isTruncated)
         );
-        return true;
     }
 
     public void setActiveFormats(Iterable<String> newFormats) {
-        Set<ITextFormat> selectedStylesSet = new HashSet<>(getSelectedStyles());
-        Set<ITextFormat> newFormatsSet = new HashSet<>();
+        int formats = FORMAT_NONE;
         for (String newFormat : newFormats) {
-            switch (newFormat) {
-                case "bold":
-                    newFormatsSet.add(AztecTextFormat.FORMAT_STRONG);
-                    break;
-                case "italic":
-                    newFormatsSet.add(AztecTextFormat.FORMAT_EMPHASIS);
-                    break;
-                case "strikethrough":
-                    newFormatsSet.add(AztecTextFormat.FORMAT_STRIKETHROUGH);
-                    break;
+            formats |= getFormatBit(newFormat);
+        }
+        setActiveFormats(formats);
+    }
+
+    /**
+     * Set the typing formats from a bitmask of FORMAT_* values. Nothing is allocated when they didn't change.
+     */
+    public void setActiveFormats(int newFormats) {
+        List<ITextFormat> selectedStyles = getSelectedStyles();
+        if (getFormatsMask(selectedStyles) != newFormats) {
+            // keep the selected styles that are not typing formats, and replace the typing ones
+            ArrayList<ITextFormat> newStylesList = new ArrayList<>(selectedStyles.size() + FORMAT_COUNT);
+            for (int i = 0; i < selectedStyles.size(); i++) {
+                ITextFormat style = selectedStyles.get(i);
+                if (getFormatBit(style) == FORMAT_NONE && !newStylesList.contains(style)) {
+                    newStylesList.add(style);
+                }
+            }
+            for (int i = 0; i < FORMAT_COUNT; i++) {
+                if ((newFormats & (1 << i)) != 0) {
+                    newStylesList.add(FORMAT_TYPING_STYLES[i]);
+                }
+            }
+            setSelectedStyles(newStylesList);
+        }
+        updateToolbarButtons(newFormats);
+    }
+
+    /**
+     * Span attached to the view's Editable that bumps the content version whenever the text or one of the content
+     * spans changes. Selection and IME composing spans don't affect the HTML, so they are ignored.
+     */
+    private class HtmlCacheInvalidator implements TextWatcher, SpanWatcher, NoCopySpan {
+        // Run before TextView's own ChangeWatcher, so listeners notified by it already see the new version.
+        static final int PRIORITY = 255 << Spanned.SPAN_PRIORITY_SHIFT;
+
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            invalidate();
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+            invalidate();
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+        }
+
+        @Override
+        public void onSpanAdded(Spannable text, Object what, int start, int end) {
+            onSpanMutated(text, what);
+        }
+
+        @Override
+        public void onSpanRemoved(Spannable text, Object what, int start, int end) {
+            onSpanMutated(text, what);
+        }
+
+        @Override
+        public void onSpanChanged(Spannable text, Object what, int ostart, int oend, int nstart, int nend) {
+            onSpanMutated(text, what);
+        }
+
+        private void onSpanMutated(Spannable text, Object what) {
+            if (what == Selection.SELECTION_START || what == Selection.SELECTION_END || what instanceof NoCopySpan
+                    || (text.getSpanFlags(what) & Spanned.SPAN_COMPOSING) != 0) {
+                return;
+            }
+            invalidate();
+        }
+
+        private void invalidate() {
+            if (!mIsSerializingHtml) {
+                invalidateHtmlCache();
             }
         }
-        selectedStylesSet.removeAll(typingFormatsMap.keySet());
-        selectedStylesSet.addAll(newFormatsSet);
-        ArrayList<ITextFormat> newStylesList = new ArrayList<>(selectedStylesSet);
-        setSelectedStyles(newStylesList);
-        updateToolbarButtons(newStylesList);
     }
 
     /**
@@ -468,6 +1238,10 @@ public class ReactAztecText extends AztecText {
     private class TextWatcherDelegator implements TextWatcher {
         @Override
         public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            if (!mIsSettingTextFromJS) {
+                // the user edits what is shown, the content still being parsed would overwrite the edit
+                cancelDeferredHtml();
+            }
             if (!mIsSettingTextFromJS && mListeners != null) {
                 for (TextWatcher listener : mListeners) {
                     listener.beforeTextChanged(s, start, count, after);
@@ -0,0 +1,204 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.support.annotation.Nullable;
+
+import android.support.v4.util.Pools;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+/**
+ * Event emitted by Aztec native view when the text changes, one per edit.
+ *
+ * It carries the event counter together with either a full snapshot of the HTML, or (when text change deltas
+ * are enabled) a compact record of the edit: the replaced range of the previous text, the text inserted in its
+ * place and the formats applied to it. Snapshots sent for an edit also carry its range and inserted text,
+ * so JS doesn't need a separate text input event. Without deltas, snapshots waiting for the same dispatch are
+ * coalesced. With deltas, nothing is: the EventDispatcher moves a coalesced event after the events dispatched
+ * in between, a snapshot could end up after the deltas based on it, or the other way round.
+ */
+class ReactAztecTextChangeEvent extends Event<ReactAztecTextChangeEvent> {
+
+    private static final String EVENT_NAME = "topChange";
+
+    private static final int NO_RANGE = -1;
+
+    // Sized for the events of a burst of typing between two frames, see EventDispatcher
+    private static final Pools.SynchronizedPool<ReactAztecTextChangeEvent> EVENTS_POOL =
+            new Pools.SynchronizedPool<>(8);
+
+    private boolean mIsDelta;
+    private boolean mCanCoalesce;
+    private String mText;
+    private int mRangeStart;
+    private int mRangeEnd;
+    private @Nullable String mInsertedText;
+    private @Nullable String mReplacedText;
+    private String[] mFormats;
+    private int mEventCount;
+    private int mBaseEventCount;
+
+    private ReactAztecTextChangeEvent() {
+    }
+
+    private static ReactAztecTextChangeEvent obtain(int viewId, boolean isDelta, boolean canCoalesce, String text,
+                                                    int rangeStart, int rangeEnd, @Nullable String insertedText,
+                                                    @Nullable String replacedText, String[] formats,
+                                                    int eventCount, int baseEventCount) {
+        ReactAztecTextChangeEvent event = EVENTS_POOL.acquire();
+        if (event == null) {
+            event = new ReactAztecTextChangeEvent();
+        }
+        event.init(viewId, isDelta, canCoalesce, text, rangeStart, rangeEnd, insertedText, replacedText, formats,
+                eventCount, baseEventCount);
+        return event;
+    }
+
+    private void init(int viewId, boolean isDelta, boolean canCoalesce, String text, int rangeStart, int rangeEnd,
+                      @Nullable String insertedText, @Nullable String replacedText, String[] formats,
+                      int eventCount, int baseEventCount) {
+        super.init(viewId);
+        mIsDelta = isDelta;
+        mCanCoalesce = canCoalesce;
+        mText = text;
+        mRangeStart = rangeStart;
+        mRangeEnd = rangeEnd;
+        mInsertedText = insertedText;
+        mReplacedText = replacedText;
+        mFormats = formats;
+        mEventCount = eventCount;
+        mBaseEventCount = baseEventCount;
+    }
+
+    @Override
+    public void onDispose() {
+        mText = null;
+        mInsertedText = null;
+        mReplacedText = null;
+        mFormats = null;
+        EVENTS_POOL.release(this);
+    }
+
+    /**
+     * Full content, not tied to a given edit (e.g. requested by JS).
+     *
+     * @param isEmittingDeltas true if deltas may be sent along with it, see canCoalesce()
+     */
+    static ReactAztecTextChangeEvent snapshot(int viewId, String html, int eventCount, int baseEventCount,
+                                              boolean isEmittingDeltas) {
+        return obtain(viewId, false, !isEmittingDeltas, html, NO_RANGE, NO_RANGE, null, null, null, eventCount,
+                baseEventCount);
+    }
+
+    /**
+     * Full content after an edit, along with the range [rangeStart, rangeEnd) of the previous text that got
+     * replaced by insertedText.
+     */
+    static ReactAztecTextChangeEvent change(int viewId, String html, int rangeStart, int rangeEnd,
+                                            String insertedText, String replacedText, int eventCount,
+                                            int baseEventCount) {
+        return obtain(viewId, false, true, html, rangeStart, rangeEnd, insertedText, replacedText,
+                null, eventCount, baseEventCount);
+    }
+
+    static ReactAztecTextChangeEvent delta(int viewId, int rangeStart, int rangeEnd, String insertedText,
+                                           String[] formats, int eventCount, int baseEventCount) {
+        return obtain(viewId, true, false, insertedText, rangeStart, rangeEnd, null, null, formats,
+                eventCount, baseEventCount);
+    }
+
+    @Override
+    public String getEventName() {
+        return EVENT_NAME;
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        // Only the latest content matters, but every delta, and the snapshot it is based on, is needed in order to
+        // rebuild the content on the JS side
+        return mCanCoalesce;
+    }
+
+    /**
+     * Keeps the latest content. The ranges of two consecutive edits are merged into a single one when they touch,
+     * as if they were a single edit, so the range still tells JS what changed. The range is dropped otherwise,
+     * the text between the two edits isn't known here.
+     */
+    @Override
+    public ReactAztecTextChangeEvent coalesce(ReactAztecTextChangeEvent otherEvent) {
+        ReactAztecTextChangeEvent older = otherEvent.mEventCount < mEventCount ? otherEvent : this;
+        ReactAztecTextChangeEvent newer = older == this ? otherEvent : this;
+        if (older.mRangeStart == NO_RANGE || newer.mRangeStart == NO_RANGE || !newer.mergeRange(older)) {
+            newer.mRangeStart = NO_RANGE;
+            newer.mRangeEnd = NO_RANGE;
+            newer.mInsertedText = null;
+            newer.mReplacedText = null;
+        }
+        newer.mBaseEventCount = older.mBaseEventCount;
+        return newer;
+    }
+
+    /**
+     * Turns the range of this edit into the range of `older` followed by this edit, all relative to the text
+     * before `older`.
+     *
+     * @return false if the two edits don't touch
+     */
+    private boolean mergeRange(ReactAztecTextChangeEvent older) {
+        // Edited parts of the text in between the two edits
+        int olderInsertedEnd = older.mRangeStart + older.mInsertedText.length();
+        if (mRangeStart > olderInsertedEnd || mRangeEnd < older.mRangeStart) {
+            return false;
+        }
+
+        // The part of the text in between covered by both edits, around what `older` inserted
+        String before = mRangeStart < older.mRangeStart
+                ? mReplacedText.substring(0, older.mRangeStart - mRangeStart) : "";
+        String after = mRangeEnd > olderInsertedEnd
+                ? mReplacedText.substring(olderInsertedEnd - mRangeStart) : "";
+        int start = Math.min(mRangeStart, older.mRangeStart);
+        String between = before + older.mInsertedText + after;
+
+        mInsertedText = between.substring(0, mRangeStart - start) + mInsertedText
+                + between.substring(mRangeEnd - start);
+        mReplacedText = before + older.mReplacedText + after;
+        mRangeStart = start;
+        mRangeEnd = start + mReplacedText.length();
+        return true;
+    }
+
+    @Override
+    public void dispatch(RCTEventEmitter rctEventEmitter) {
+        rctEventEmitter.receiveEvent(getViewTag(), getEventName(), serializeEventData());
+    }
+
+    private WritableMap serializeEventData() {
+        WritableMap eventData = Arguments.createMap();
+        eventData.putInt("target", getViewTag());
+        eventData.putInt("eventCount", mEventCount);
+        eventData.putInt("baseEventCount", mBaseEventCount);
+        if (mIsDelta) {
+            WritableMap delta = Arguments.createMap();
+            delta.putInt("start", mRangeStart);
+            delta.putInt("end", mRangeEnd);
+            delta.putString("text", mText);
+            WritableArray formats = Arguments.fromArray(mFormats);
+            delta.putArray("formats", formats);
+            eventData.putMap("delta", delta);
+        } else {
+            eventData.putString("text", mText);
+            if (mRangeStart != NO_RANGE) {
+                WritableMap range = Arguments.createMap();
+                range.putInt("start", mRangeStart);
+                range.putInt("end", mRangeEnd);
+                eventData.putMap("range", range);
+                eventData.putString("insertedText", mInsertedText);
+                eventData.putString("replacedText", mReplacedText);
+            }
+        }
+        return eventData;
+    }
+}
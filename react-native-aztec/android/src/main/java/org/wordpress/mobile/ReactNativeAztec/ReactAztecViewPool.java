@@ -0,0 +1,137 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.Nullable;
+
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.uimanager.ThemedReactContext;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded pool of {@link ReactAztecText} instances, so scrolling through a long post doesn't keep building and
+ * discarding heavy Aztec views. Views dropped by RN are reset and kept here, and handed out again on the next
+ * createViewInstance.
+ *
+ * Views are tied to the ThemedReactContext of their root view, so the pool only keeps views of the current one,
+ * and lets go of them (and of the context) once the host or the catalyst instance gets destroyed.
+ */
+class ReactAztecViewPool implements LifecycleEventListener {
+
+    static final int DEFAULT_MAX_SIZE = 8;
+
+    interface ViewFactory {
+        ReactAztecText newViewInstance(ThemedReactContext reactContext);
+    }
+
+    private final ViewFactory mViewFactory;
+    private final int mMaxSize;
+    private final int mPrewarmCount;
+    private final ArrayDeque<ReactAztecText> mViews = new ArrayDeque<>();
+    private @Nullable ThemedReactContext mReactContext;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private int mCreatedCount = 0;
+    private int mReusedCount = 0;
+
+    /**
+     * @param prewarmCount number of views to build ahead of time, during idle time, once the first view of a
+     *                     root view has been created. The ThemedReactContext they need only exists from then on.
+     */
+    ReactAztecViewPool(ViewFactory viewFactory, int maxSize, int prewarmCount) {
+        mViewFactory = viewFactory;
+        mMaxSize = maxSize;
+        mPrewarmCount = Math.min(prewarmCount, maxSize);
+    }
+
+    ReactAztecText acquire(ThemedReactContext reactContext) {
+        if (reactContext != mReactContext) {
+            // A new root view, the pooled views can't be used with it
+            clear();
+            mReactContext = reactContext;
+            reactContext.addLifecycleEventListener(this);
+            prewarm(reactContext);
+        }
+
+        ReactAztecText view = mViews.pollFirst();
+        if (view != null) {
+            mReusedCount++;
+            return view;
+        }
+        mCreatedCount++;
+        return mViewFactory.newViewInstance(reactContext);
+    }
+
+    /**
+     * RN drops a view before its parent detaches it, so the view is only taken back once that happened.
+     */
+    void release(final ReactAztecText view) {
+        if (view.getContext() != mReactContext || !view.isReusable()) {
+            return;
+        }
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (view.getContext() != mReactContext
+                        || mViews.size() >= mMaxSize
+                        || view.getParent() != null) {
+                    return;
+                }
+                view.resetForReuse();
+                mViews.addFirst(view);
+            }
+        });
+    }
+
+    /**
+     * Lets go of the pooled views and of their context.
+     */
+    void clear() {
+        mViews.clear();
+        if (mReactContext != null) {
+            mReactContext.removeLifecycleEventListener(this);
+            mReactContext = null;
+        }
+    }
+
+    @Override
+    public void onHostResume() {
+    }
+
+    @Override
+    public void onHostPause() {
+    }
+
+    @Override
+    public void onHostDestroy() {
+        clear();
+    }
+
+    private void prewarm(final ThemedReactContext reactContext) {
+        if (mPrewarmCount <= 0) {
+            return;
+        }
+        // One view per idle pass, so this never gets in the way of a frame for long
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (reactContext != mReactContext || mViews.size() >= mPrewarmCount) {
+                    return false;
+                }
+                mCreatedCount++;
+                mViews.addLast(mViewFactory.newViewInstance(reactContext));
+                return true;
+            }
+        });
+    }
+
+    int getCreatedCount() {
+        return mCreatedCount;
+    }
+
+    int getReusedCount() {
+        return mReusedCount;
+    }
+}
@@ -0,0 +1,129 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal benchmark harness for the hot paths of the Aztec views, run on the JVM under Robolectric.
+ *
+ * An operation is warmed up, then run for a fixed time while its duration and the bytes it allocates on the calling
+ * thread are measured. Results are printed as ops/sec and bytes/op. Robolectric adds its own overhead, only compare
+ * results of the same machine, JVM and Robolectric version.
+ *
+ * Benchmarks are skipped unless run with `./gradlew testDebugUnitTest -PaztecBenchmarks`.
+ */
+final class ReactAztecBenchmark {
+
+    private static final long WARM_UP_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MIN_OPERATIONS = 5;
+
+    // Documents sizes (in chars of text) and span densities (one span every that many words, 0 for none)
+    static final int[] DOCUMENT_LENGTHS = { 1000, 10000, 100000 };
+    static final int[] SPAN_INTERVALS = { 0, 10, 2 };
+
+    private static final String[] WORDS = {
+            "Lorem", "ipsum", "dolor", "sit", "amet,", "consectetur", "adipiscing", "elit.", "Sed", "do",
+            "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua."
+    };
+    private static final String[][] SPAN_TAGS = {
+            { "<strong>", "</strong>" },
+            { "<em>", "</em>" },
+            { "<del>", "</del>" },
+            { "<a href=\"https://wordpress.org\">", "</a>" }
+    };
+    private static final int PARAGRAPH_LENGTH = 500;
+
+    interface Operation {
+        void run();
+    }
+
+    static final class Result {
+        final double opsPerSecond;
+        // NaN if the JVM can't count the allocated bytes
+        final double bytesPerOp;
+
+        Result(double opsPerSecond, double bytesPerOp) {
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    private ReactAztecBenchmark() {
+    }
+
+    static boolean isEnabled() {
+        return Boolean.getBoolean("aztec.benchmarks");
+    }
+
+    static Result measure(String name, Operation operation) {
+        long warmUpStart = System.nanoTime();
+        do {
+            operation.run();
+        } while (System.nanoTime() - warmUpStart < WARM_UP_NANOS);
+
+        long startBytes = getAllocatedBytes();
+        long start = System.nanoTime();
+        long operations = 0;
+        long elapsed;
+        do {
+            operation.run();
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS || operations < MIN_OPERATIONS);
+        long endBytes = getAllocatedBytes();
+
+        Result result = new Result(operations * 1e9 / elapsed,
+                startBytes < 0 ? Double.NaN : (double) (endBytes - startBytes) / operations);
+        System.out.println(String.format(Locale.US, "%-64s %14.1f ops/s %14.1f B/op",
+                name, result.opsPerSecond, result.bytesPerOp));
+        return result;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM doesn't count them
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * HTML of about `length` chars of text, in paragraphs of about PARAGRAPH_LENGTH chars. Every `spanInterval`
+     * words, a word is wrapped in bold, italic, strikethrough or a link, in turn. No spans when 0.
+     */
+    static String generateHtml(int length, int spanInterval) {
+        StringBuilder html = new StringBuilder(length * 2);
+        html.append("<p>");
+        int textLength = 0;
+        int paragraphLength = 0;
+        for (int word = 0; textLength < length; word++) {
+            String text = WORDS[word % WORDS.length];
+            if (spanInterval > 0 && word % spanInterval == spanInterval - 1) {
+                String[] tags = SPAN_TAGS[(word / spanInterval) % SPAN_TAGS.length];
+                html.append(tags[0]).append(text).append(tags[1]);
+            } else {
+                html.append(text);
+            }
+            html.append(' ');
+            textLength += text.length() + 1;
+            paragraphLength += text.length() + 1;
+            if (paragraphLength >= PARAGRAPH_LENGTH && textLength < length) {
+                html.append("</p><p>");
+                paragraphLength = 0;
+            }
+        }
+        html.append("</p>");
+        return html.toString();
+    }
+
+    static String describe(int length, int spanInterval) {
+        return length + " chars, " + (spanInterval == 0 ? "no spans" : "a span every " + spanInterval + " words");
+    }
+}
@@ -0,0 +1,40 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReactAztecEditHistoryTest {
+
+    @Test
+    public void undoingAPartialDeletionRestoresTheFormattedRange() {
+        SpannableStringBuilder text = new SpannableStringBuilder("hello world");
+        StyleSpan bold = new StyleSpan(Typeface.BOLD);
+        text.setSpan(bold, 0, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        ReactAztecEditHistory history = new ReactAztecEditHistory(1024 * 1024);
+        text.setSpan(history, 0, text.length(), Spanned.SPAN_INCLUSIVE_INCLUSIVE);
+
+        // the span stays in the text, shrunk to the remaining chars
+        text.delete(3, 8);
+        assertEquals("helrld", text.toString());
+        assertEquals(6, text.getSpanEnd(bold));
+
+        history.undo(text);
+        assertEquals("hello world", text.toString());
+        assertEquals(0, text.getSpanStart(bold));
+        assertEquals(11, text.getSpanEnd(bold));
+
+        history.redo(text);
+        assertEquals("helrld", text.toString());
+        assertEquals(0, text.getSpanStart(bold));
+        assertEquals(6, text.getSpanEnd(bold));
+    }
+}
@@ -0,0 +1,114 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import com.facebook.react.uimanager.events.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReactAztecEventPoolingTest {
+
+    private static final int WARM_UP_KEYSTROKES = 50;
+    private static final int KEYSTROKES = 1000;
+    // Size of the largest event pool, see ReactAztecTextChangeEvent
+    private static final int MAX_POOL_SIZE = 8;
+
+    private ReactAztecTestEnvironment mEnvironment;
+    // Distinct instances of each event class dispatched, i.e. the event objects allocated
+    private final Map<Class<?>, Set<Event>> mEventInstances = new HashMap<>();
+    private int mEventCount = 0;
+
+    @Before
+    public void setUp() {
+        mEnvironment = new ReactAztecTestEnvironment();
+        mEnvironment.setEventListener(new ReactAztecTestEnvironment.EventListener() {
+            @Override
+            public void onEventDispatched(Event event) {
+                mEventCount++;
+                Set<Event> instances = mEventInstances.get(event.getClass());
+                if (instances == null) {
+                    instances = Collections.newSetFromMap(new IdentityHashMap<Event, Boolean>());
+                    mEventInstances.put(event.getClass(), instances);
+                }
+                instances.add(event);
+            }
+        });
+    }
+
+    @Test
+    public void typingReusesTheEventsOfTheChangesSentAsHtml() {
+        assertTypingAllocatesNoEvents(false);
+    }
+
+    @Test
+    public void typingReusesTheEventsOfTheChangesSentAsDeltas() {
+        assertTypingAllocatesNoEvents(true);
+    }
+
+    @Test
+    public void disposedEventsAreHandedOutAgain() {
+        ReactAztecTextChangeEvent textChangeEvent = ReactAztecTextChangeEvent.snapshot(1, "", 1, 0, false);
+        textChangeEvent.dispose();
+        assertSame(textChangeEvent, ReactAztecTextChangeEvent.delta(1, 0, 0, "a", new String[0], 2, 1));
+
+        ReactAztecContentSizeChangeEvent contentSizeEvent = ReactAztecContentSizeChangeEvent.obtain(1, 10, 10);
+        contentSizeEvent.dispose();
+        assertSame(contentSizeEvent, ReactAztecContentSizeChangeEvent.obtain(1, 20, 20));
+
+        ReactAztecSelectionChangeEvent selectionEvent = ReactAztecSelectionChangeEvent.obtain(1, "", 0, 0, 1);
+        selectionEvent.dispose();
+        assertSame(selectionEvent, ReactAztecSelectionChangeEvent.obtain(1, "", 1, 1, 2));
+
+        ReactAztecFormattingChangeEvent formattingEvent = ReactAztecFormattingChangeEvent.obtain(1, new String[0]);
+        formattingEvent.dispose();
+        assertSame(formattingEvent, ReactAztecFormattingChangeEvent.obtain(1, new String[0]));
+    }
+
+    @Test
+    public void formatNamesAreBuiltOncePerMask() {
+        int allFormats = ReactAztecText.FORMAT_BOLD | ReactAztecText.FORMAT_ITALIC
+                | ReactAztecText.FORMAT_STRIKETHROUGH;
+        for (int mask = 0; mask <= allFormats; mask++) {
+            assertSame(ReactAztecText.getFormatNames(mask), ReactAztecText.getFormatNames(mask));
+        }
+    }
+
+    private void assertTypingAllocatesNoEvents(boolean emitTextChangeDeltas) {
+        ReactAztecText view = mEnvironment.createView();
+        mEnvironment.manager.setEmitTextChangeDeltas(view, emitTextChangeDeltas);
+        mEnvironment.manager.setOnSelectionChange(view, true);
+        mEnvironment.manager.setOnContentSizeChange(view, true);
+
+        // fills the pools
+        type(view, WARM_UP_KEYSTROKES);
+        mEventInstances.clear();
+        mEventCount = 0;
+
+        type(view, KEYSTROKES);
+
+        assertTrue("no event dispatched while typing", mEventCount >= KEYSTROKES);
+        assertFalse(mEventInstances.isEmpty());
+        for (Map.Entry<Class<?>, Set<Event>> entry : mEventInstances.entrySet()) {
+            assertTrue(entry.getKey().getSimpleName() + " allocated " + entry.getValue().size() + " times",
+                    entry.getValue().size() <= MAX_POOL_SIZE);
+        }
+    }
+
+    private static void type(ReactAztecText view, int keystrokes) {
+        for (int i = 0; i < keystrokes; i++) {
+            view.getText().insert(view.getSelectionStart(), i % 10 == 9 ? " " : "a");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Baseline of the serialization and event hot paths of the Aztec views, over generated documents of
+ * {@link ReactAztecBenchmark#DOCUMENT_LENGTHS} chars with the span densities of
+ * {@link ReactAztecBenchmark#SPAN_INTERVALS}. Prints ops/sec and bytes allocated per op.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReactAztecHotPathsBenchmark {
+
+    private ReactAztecTestEnvironment mEnvironment;
+
+    private interface OperationFactory {
+        ReactAztecBenchmark.Operation create(ReactAztecText view, String html);
+    }
+
+    @Before
+    public void setUp() {
+        assumeTrue(ReactAztecBenchmark.isEnabled());
+        mEnvironment = new ReactAztecTestEnvironment();
+    }
+
+    @Test
+    public void toHtml() {
+        measureOnEveryDocument("toHtml", new OperationFactory() {
+            @Override
+            public ReactAztecBenchmark.Operation create(final ReactAztecText view, String html) {
+                return new ReactAztecBenchmark.Operation() {
+                    @Override
+                    public void run() {
+                        view.toHtml(false);
+                    }
+                };
+            }
+        });
+    }
+
+    @Test
+    public void fromHtml() {
+        measureOnEveryDocument("fromHtml", new OperationFactory() {
+            @Override
+            public ReactAztecBenchmark.Operation create(final ReactAztecText view, final String html) {
+                return new ReactAztecBenchmark.Operation() {
+                    @Override
+                    public void run() {
+                        view.fromHtml(html, false);
+                    }
+                };
+            }
+        });
+    }
+
+    @Test
+    public void setActiveFormats() {
+        measureOnEveryDocument("setActiveFormats", new OperationFactory() {
+            @Override
+            public ReactAztecBenchmark.Operation create(final ReactAztecText view, String html) {
+                return new ReactAztecBenchmark.Operation() {
+                    private boolean mIsBold;
+
+                    @Override
+                    public void run() {
+                        // toggled, so every call changes the typing styles and reports them
+                        mIsBold = !mIsBold;
+                        view.setActiveFormats(mIsBold ? ReactAztecText.FORMAT_BOLD : ReactAztecText.FORMAT_NONE);
+                    }
+                };
+            }
+        });
+    }
+
+    @Test
+    public void updateToolbarButtonsAtCaret() {
+        measureOnEveryDocument("updateToolbarButtons, caret", new OperationFactory() {
+            @Override
+            public ReactAztecBenchmark.Operation create(final ReactAztecText view, String html) {
+                final int position = view.length() / 2;
+                return new ReactAztecBenchmark.Operation() {
+                    @Override
+                    public void run() {
+                        view.updateToolbarButtons(position, position);
+                    }
+                };
+            }
+        });
+    }
+
+    @Test
+    public void updateToolbarButtonsOnWholeText() {
+        measureOnEveryDocument("updateToolbarButtons, whole text", new OperationFactory() {
+            @Override
+            public ReactAztecBenchmark.Operation create(final ReactAztecText view, String html) {
+                return new ReactAztecBenchmark.Operation() {
+                    @Override
+                    public void run() {
+                        view.updateToolbarButtons(0, view.length());
+                    }
+                };
+            }
+        });
+    }
+
+    @Test
+    public void textWatcherKeystroke() {
+        for (final boolean emitTextChangeDeltas : new boolean[] { false, true }) {
+            measureOnEveryDocument("text watcher keystroke, " + (emitTextChangeDeltas ? "deltas" : "HTML"),
+                    new OperationFactory() {
+                        @Override
+                        public ReactAztecBenchmark.Operation create(ReactAztecText view, String html) {
+                            mEnvironment.manager.setEmitTextChangeDeltas(view, emitTextChangeDeltas);
+                            final TextWatcher watcher = view.getJSTextWatcher();
+                            assertNotNull(watcher);
+                            // The text is left as is, every keystroke is reported against the same content
+                            final Editable text = view.getText();
+                            final int position = text.length() / 2;
+                            return new ReactAztecBenchmark.Operation() {
+                                @Override
+                                public void run() {
+                                    watcher.beforeTextChanged(text, position, 0, 1);
+                                    watcher.onTextChanged(text, position, 0, 1);
+                                }
+                            };
+                        }
+                    });
+        }
+    }
+
+    private void measureOnEveryDocument(String name, OperationFactory operationFactory) {
+        for (int length : ReactAztecBenchmark.DOCUMENT_LENGTHS) {
+            for (int spanInterval : ReactAztecBenchmark.SPAN_INTERVALS) {
+                String html = ReactAztecBenchmark.generateHtml(length, spanInterval);
+                ReactAztecText view = mEnvironment.createView();
+                view.shouldHandleActiveFormatsChange = true;
+                view.setHtmlFromJS(html);
+                ReactAztecBenchmark.measure(name + ", " + ReactAztecBenchmark.describe(length, spanInterval),
+                        operationFactory.create(view, html));
+            }
+        }
+    }
+}
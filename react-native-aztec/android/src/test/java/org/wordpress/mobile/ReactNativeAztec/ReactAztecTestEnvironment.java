@@ -0,0 +1,143 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.support.annotation.Nullable;
+
+import com.facebook.react.bridge.CatalystInstance;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.queue.MessageQueueThread;
+import com.facebook.react.bridge.queue.ReactQueueConfiguration;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.UIManagerModule;
+import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDispatcher;
+
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+
+/**
+ * Just enough of a React Native instance to build Aztec views and their watchers on the JVM.
+ *
+ * The catalyst instance only serves the UIManagerModule, and its event dispatcher disposes of every event right
+ * after handing it to the listener, the way the real one does once the event reached JS. Pooled events get recycled.
+ */
+class ReactAztecTestEnvironment {
+
+    interface EventListener {
+        void onEventDispatched(Event event);
+    }
+
+    final ReactApplicationContext applicationContext;
+    final ThemedReactContext reactContext;
+    final ReactAztecManager manager = new ReactAztecManager();
+    private final UIManagerModule mUIManagerModule;
+    private @Nullable EventListener mEventListener;
+
+    ReactAztecTestEnvironment() {
+        applicationContext = new ReactApplicationContext(RuntimeEnvironment.application);
+        final EventDispatcher eventDispatcher = new EventDispatcher(applicationContext) {
+            @Override
+            public void dispatchEvent(Event event) {
+                if (mEventListener != null) {
+                    mEventListener.onEventDispatched(event);
+                }
+                event.dispose();
+            }
+        };
+        mUIManagerModule = new UIManagerModule(applicationContext, Collections.<ViewManager>emptyList(), -1) {
+            @Override
+            public EventDispatcher getEventDispatcher() {
+                return eventDispatcher;
+            }
+        };
+
+        final MessageQueueThread immediateQueue = stub(MessageQueueThread.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("runOnQueue")) {
+                    ((Runnable) args[0]).run();
+                    return null;
+                }
+                if (method.getName().equals("isOnThread")) {
+                    return true;
+                }
+                return defaultValue(method.getReturnType());
+            }
+        });
+        final ReactQueueConfiguration queueConfiguration = stub(ReactQueueConfiguration.class,
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        return method.getReturnType() == MessageQueueThread.class
+                                ? immediateQueue : defaultValue(method.getReturnType());
+                    }
+                });
+        CatalystInstance catalystInstance = stub(CatalystInstance.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "getNativeModule":
+                        return args[0] == UIManagerModule.class ? mUIManagerModule : null;
+                    case "hasNativeModule":
+                        return args[0] == UIManagerModule.class;
+                    case "getReactQueueConfiguration":
+                        return queueConfiguration;
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            }
+        });
+        applicationContext.initializeWithInstance(catalystInstance);
+        reactContext = new ThemedReactContext(applicationContext, RuntimeEnvironment.application);
+    }
+
+    void setEventListener(@Nullable EventListener eventListener) {
+        mEventListener = eventListener;
+    }
+
+    /**
+     * A view set up the way RN mounts one, with the JS text watcher and the focus listener in place.
+     */
+    ReactAztecText createView() {
+        ReactAztecText view = manager.createViewInstance(reactContext);
+        manager.addEventEmitters(reactContext, view);
+        return view;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static @Nullable Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReactAztecTextChangeEventTest {
+
+    @Test
+    public void changesSentAsHtmlAreCoalesced() {
+        assertTrue(ReactAztecTextChangeEvent.change(1, "<b>a</b>", 0, 0, "a", "", 2, 1).canCoalesce());
+        assertTrue(ReactAztecTextChangeEvent.snapshot(1, "<b>a</b>", 2, 1, false).canCoalesce());
+    }
+
+    @Test
+    public void nothingIsCoalescedAlongWithDeltas() {
+        // a coalesced snapshot would be dispatched after the deltas sent in between
+        assertFalse(ReactAztecTextChangeEvent.snapshot(1, "<b>a</b>", 2, 1, true).canCoalesce());
+        assertFalse(ReactAztecTextChangeEvent.delta(1, 0, 0, "a", new String[0], 3, 2).canCoalesce());
+    }
+}
@@ -0,0 +1,107 @@
+package org.wordpress.mobile.ReactNativeAztec;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Cost of a keystroke in the watcher sending the text changes to JS, from 100 to 100k chars in the block.
+ * Only the replaced slice of the text gets copied, so the cost must not grow with the block length.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReactAztecTextWatcherBenchmark {
+
+    private static final int[] BLOCK_LENGTHS = { 100, 1000, 10000, 100000 };
+    // Allocations may differ a bit with the length (e.g. the chars of the event count), not with its magnitude
+    private static final double MAX_BYTES_PER_OP_GROWTH = 2;
+    private static final double BYTES_PER_OP_TOLERANCE = 256;
+
+    private ReactAztecTestEnvironment mEnvironment;
+
+    @Before
+    public void setUp() {
+        assumeTrue(ReactAztecBenchmark.isEnabled());
+        mEnvironment = new ReactAztecTestEnvironment();
+    }
+
+    @Test
+    public void keystrokeSentAsHtmlChange() {
+        assertFlatKeystrokeCost(false);
+    }
+
+    @Test
+    public void keystrokeSentAsDelta() {
+        assertFlatKeystrokeCost(true);
+    }
+
+    /**
+     * The whole keystroke path, Aztec's own watchers included, for reference. Not expected to be flat, the HTML
+     * of a change is serialized again after every edit.
+     */
+    @Test
+    public void typing() {
+        for (int length : BLOCK_LENGTHS) {
+            for (boolean emitTextChangeDeltas : new boolean[] { false, true }) {
+                final ReactAztecText view = createView(length, emitTextChangeDeltas);
+                final Editable text = view.getText();
+                ReactAztecBenchmark.measure("typing, " + describe(length, emitTextChangeDeltas),
+                        new ReactAztecBenchmark.Operation() {
+                            @Override
+                            public void run() {
+                                text.insert(view.getSelectionStart(), "a");
+                            }
+                        });
+            }
+        }
+    }
+
+    private void assertFlatKeystrokeCost(boolean emitTextChangeDeltas) {
+        double shortestBlockBytesPerOp = Double.NaN;
+        for (int length : BLOCK_LENGTHS) {
+            ReactAztecText view = createView(length, emitTextChangeDeltas);
+            final TextWatcher watcher = view.getJSTextWatcher();
+            assertNotNull(watcher);
+            // The text is left as is, every keystroke is reported against the same content
+            final Editable text = view.getText();
+            final int position = text.length() / 2;
+            ReactAztecBenchmark.Result result = ReactAztecBenchmark.measure(
+                    "text watcher keystroke, " + describe(length, emitTextChangeDeltas),
+                    new ReactAztecBenchmark.Operation() {
+                        @Override
+                        public void run() {
+                            watcher.beforeTextChanged(text, position, 0, 1);
+                            watcher.onTextChanged(text, position, 0, 1);
+                        }
+                    });
+
+            if (Double.isNaN(shortestBlockBytesPerOp)) {
+                shortestBlockBytesPerOp = result.bytesPerOp;
+            } else if (!Double.isNaN(result.bytesPerOp)) {
+                assertTrue("keystroke allocations grow with the block length: " + result.bytesPerOp + " B/op at "
+                                + length + " chars, " + shortestBlockBytesPerOp + " B/op at " + BLOCK_LENGTHS[0],
+                        result.bytesPerOp <= shortestBlockBytesPerOp * MAX_BYTES_PER_OP_GROWTH
+                                + BYTES_PER_OP_TOLERANCE);
+            }
+        }
+    }
+
+    private ReactAztecText createView(int length, boolean emitTextChangeDeltas) {
+        ReactAztecText view = mEnvironment.createView();
+        mEnvironment.manager.setEmitTextChangeDeltas(view, emitTextChangeDeltas);
+        view.setHtmlFromJS(ReactAztecBenchmark.generateHtml(length, 10));
+        view.setSelection(view.length() / 2);
+        return view;
+    }
+
+    private static String describe(int length, boolean emitTextChangeDeltas) {
+        return ReactAztecBenchmark.describe(length, 10) + (emitTextChangeDeltas ? ", deltas" : ", HTML");
+    }
+}
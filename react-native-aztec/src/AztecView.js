@@ -1,9 +1,34 @@
 import PropTypes from 'prop-types';
 import React from 'react';
-import ReactNative, {requireNativeComponent, ViewPropTypes, UIManager, ColorPropType, TouchableWithoutFeedback, Platform} from 'react-native';
+import ReactNative, {requireNativeComponent, ViewPropTypes, UIManager, ColorPropType, TouchableWithoutFeedback, Platform, NativeModules} from 'react-native';
 import TextInputState from 'react-native/lib/TextInputState';
 
 const AztecManager = UIManager.getViewManagerConfig('RCTAztecView');
+const AztecPaste = NativeModules.AztecPaste;
+
+// Pasted data above `pasteInlineThreshold` is sent by reference, read it back chunk by chunk then let native
+// delete it
+function readPastedData( uri, inlineData ) {
+  if ( ! uri || ! AztecPaste ) {
+    return Promise.resolve( inlineData );
+  }
+
+  const chunks = [];
+  const readFrom = ( offset ) => AztecPaste.readPastedChunk( uri, offset ).then( ( { chunk, isLast } ) => {
+    chunks.push( chunk );
+    return isLast ? chunks.join( '' ) : readFrom( offset + chunk.length );
+  } );
+  return readFrom( 0 ).then(
+    ( data ) => {
+      AztecPaste.releasePastedData( uri );
+      return data;
+    },
+    ( error ) => {
+      AztecPaste.releasePastedData( uri );
+      throw error;
+    }
+  );
+}
 
 class AztecView extends React.Component {
   selectionEndCaretY: number;
@@ -19,11 +44,22 @@ class AztecView extends React.Component {
     maxImagesWidth: PropTypes.number,
     minImagesWidth: PropTypes.number,
     onChange: PropTypes.func,
+    emitTextChangeDeltas: PropTypes.bool,
+    deferredParseThreshold: PropTypes.number,
+    undoHistoryBudget: PropTypes.number,
+    pasteMaxLength: PropTypes.number,
+    pasteInlineThreshold: PropTypes.number,
+    // 0: every event, -1: once per frame, > 0: at most once every that many ms
+    textChangeThrottle: PropTypes.number,
+    selectionChangeThrottle: PropTypes.number,
+    scrollThrottle: PropTypes.number,
+    contentSizeChangeThrottle: PropTypes.number,
     onFocus: PropTypes.func,
     onBlur: PropTypes.func,
     onContentSizeChange: PropTypes.func,
     onEnter: PropTypes.func,
     onBackspace: PropTypes.func,
+    onPaste: PropTypes.func,
     onScroll: PropTypes.func,
     onSelectionChange: PropTypes.func,
     onHTMLContentWithCursor: PropTypes.func,
@@ -45,6 +81,22 @@ class AztecView extends React.Component {
     this.dispatch(AztecManager.Commands.returnHTMLWithCursor)
   }
 
+  requestTextSnapshot() {
+    this.dispatch(AztecManager.Commands.requestTextSnapshot)
+  }
+
+  undo() {
+    this.dispatch(AztecManager.Commands.undo)
+  }
+
+  redo() {
+    this.dispatch(AztecManager.Commands.redo)
+  }
+
+  clearHistory() {
+    this.dispatch(AztecManager.Commands.clearHistory)
+  }
+
   _onContentSizeChange = (event) => {
     if (!this.props.onContentSizeChange) {
       return;
@@ -72,6 +124,33 @@ class AztecView extends React.Component {
     onBackspace(event);
   }
 
+  _onPaste = (event) => {
+    const { pastedText, pastedHtml, pastedTextUri, pastedHtmlUri } = event.nativeEvent;
+    if (!this.props.onPaste) {
+      // nobody is going to read them
+      readPastedData(pastedTextUri, '').catch(() => {});
+      readPastedData(pastedHtmlUri, '').catch(() => {});
+      return;
+    }
+
+    const { onPaste } = this.props;
+    if (!pastedTextUri && !pastedHtmlUri) {
+      onPaste(event);
+      return;
+    }
+
+    // The event is read after this handler returns, only its data is kept
+    const nativeEvent = { ...event.nativeEvent };
+    Promise.all([
+      readPastedData(pastedTextUri, pastedText),
+      readPastedData(pastedHtmlUri, pastedHtml),
+    ]).then(
+      ([ text, html ]) => onPaste({ nativeEvent: { ...nativeEvent, pastedText: text, pastedHtml: html } }),
+      // Paste what made it inline rather than nothing
+      () => onPaste({ nativeEvent })
+    );
+  }
+
   _onHTMLContentWithCursor = (event) => {
     if (!this.props.onHTMLContentWithCursor) {
       return;
@@ -150,6 +229,8 @@ class AztecView extends React.Component {
 
   render() {
     const { onActiveFormatsChange, onFocus, ...otherProps } = this.props
+    // Native only intercepts pastes when there's a handler
+    const onPaste = this.props.onPaste && this._onPaste;
     return (
       <TouchableWithoutFeedback onPress={ this._onPress }>
         <RCTAztecView
@@ -161,6 +242,7 @@ class AztecView extends React.Component {
           onFocus = { this._onAztecFocus } 
           onBlur = { this._onBlur }
           onBackspace = { this._onBackspace }
+          onPaste = { onPaste }
         />
       </TouchableWithoutFeedback>
     );
@@ -1,8 +1,28 @@
 package org.wordpress.mobile.ReactNativeGutenbergBridge;
 
+import android.support.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
 public interface GutenbergBridgeJS2Parent {
     void responseHtml(String title, String html, boolean changed);
 
+    /**
+     * Blocks changed in the editor, only streamed by JS when the content mirror is enabled.
+     *
+     * @param blockOrder client ids of all the top level blocks, in order, or null if JS can't stream them
+     *                   at the moment (e.g. in HTML mode)
+     * @param changedBlocks serialized blocks, by client id, that changed since the previous call
+     */
+    void contentChanged(String title, @Nullable List<String> blockOrder, @Nullable Map<String, String> changedBlocks,
+                        boolean changed);
+
+    /**
+     * The content changed in the editor and the change wasn't streamed yet, see {@link #contentChanged}.
+     */
+    void contentDirty();
+
     void editorDidMount(boolean hasUnsupportedBlocks);
 
     interface MediaSelectedCallback {
@@ -0,0 +1,152 @@
+package org.wordpress.mobile.ReactNativeGutenbergBridge;
+
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+
+/**
+ * Content too large to be sent to JS in one go, kept here until JS pulled all its chunks.
+ *
+ * JS pulls one chunk at a time, so only the content itself and a single chunk are in memory on this side,
+ * instead of the copies made when the whole string goes through a WritableMap or a Bundle.
+ *
+ * A transfer JS didn't pull from for TRANSFER_TTL_MS is dropped, e.g. when JS got reloaded halfway through.
+ */
+public class HtmlTransfers {
+    // In chars, content up to this length is still sent in one go
+    public static final int THRESHOLD = 256 * 1024;
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final long TRANSFER_TTL_MS = 60000;
+
+    public static final class Transfer {
+        public final int id;
+        private final String mHtml;
+        // Chunk i is mHtml[mBoundaries[i], mBoundaries[i + 1])
+        private final int[] mBoundaries;
+        // Pulled again from the start after a reload, never expires
+        private final boolean mIsRetained;
+        private int mNextSeq = 0;
+        // SystemClock.elapsedRealtime() of the creation or the last chunk pulled
+        private long mLastAccessTime;
+
+        private Transfer(int id, String html, boolean isRetained) {
+            this.id = id;
+            mHtml = html;
+            mBoundaries = computeBoundaries(html);
+            mIsRetained = isRetained;
+            mLastAccessTime = SystemClock.elapsedRealtime();
+        }
+
+        public int getChunkCount() {
+            return mBoundaries.length - 1;
+        }
+    }
+
+    private final SparseArray<Transfer> mTransfers = new SparseArray<>();
+    private int mLastTransferId = 0;
+
+    public static boolean shouldChunk(@Nullable String html) {
+        return html != null && html.length() > THRESHOLD;
+    }
+
+    public synchronized Transfer create(String html) {
+        return add(html, false);
+    }
+
+    /**
+     * For content the initial props refer to: JS pulls it again whenever it gets reloaded, so it is kept until
+     * {@link #release(int)}.
+     */
+    public synchronized Transfer createRetained(String html) {
+        return add(html, true);
+    }
+
+    public synchronized void release(int transferId) {
+        mTransfers.remove(transferId);
+    }
+
+    private Transfer add(String html, boolean isRetained) {
+        removeExpired();
+        Transfer transfer = new Transfer(++mLastTransferId, html, isRetained);
+        mTransfers.put(transfer.id, transfer);
+        return transfer;
+    }
+
+    /**
+     * @return the chunk, or null if the transfer is unknown or the chunks aren't pulled in order
+     */
+    synchronized @Nullable String getChunk(int transferId, int seq) {
+        removeExpired();
+        Transfer transfer = mTransfers.get(transferId);
+        if (transfer == null) {
+            return null;
+        }
+        if (transfer.mIsRetained && seq == 0) {
+            transfer.mNextSeq = 0;
+        }
+        if (seq != transfer.mNextSeq) {
+            if (!transfer.mIsRetained) {
+                mTransfers.remove(transferId);
+            }
+            return null;
+        }
+
+        transfer.mNextSeq++;
+        transfer.mLastAccessTime = SystemClock.elapsedRealtime();
+        if (transfer.mNextSeq == transfer.getChunkCount()) {
+            if (transfer.mIsRetained) {
+                transfer.mNextSeq = 0;
+            } else {
+                // All pulled, JS has it now
+                mTransfers.remove(transferId);
+            }
+        }
+        return transfer.mHtml.substring(transfer.mBoundaries[seq], transfer.mBoundaries[seq + 1]);
+    }
+
+    /**
+     * JS went away, nobody is going to pull what is left. Retained transfers are pulled from the start next time.
+     */
+    synchronized void clear() {
+        for (int i = mTransfers.size() - 1; i >= 0; i--) {
+            Transfer transfer = mTransfers.valueAt(i);
+            if (transfer.mIsRetained) {
+                transfer.mNextSeq = 0;
+            } else {
+                mTransfers.removeAt(i);
+            }
+        }
+    }
+
+    private void removeExpired() {
+        long now = SystemClock.elapsedRealtime();
+        for (int i = mTransfers.size() - 1; i >= 0; i--) {
+            Transfer transfer = mTransfers.valueAt(i);
+            if (!transfer.mIsRetained && now - transfer.mLastAccessTime > TRANSFER_TTL_MS) {
+                mTransfers.removeAt(i);
+            }
+        }
+    }
+
+    private static int[] computeBoundaries(String html) {
+        // Every chunk but the last one has at least CHUNK_SIZE - 1 chars
+        int[] boundaries = new int[html.length() / (CHUNK_SIZE - 1) + 2];
+        int count = 1;
+        int start = 0;
+        while (start < html.length()) {
+            int end = Math.min(start + CHUNK_SIZE, html.length());
+            // Never split a surrogate pair, half of it wouldn't make it through the bridge
+            if (end < html.length() && Character.isHighSurrogate(html.charAt(end - 1))) {
+                end--;
+            }
+            boundaries[count++] = end;
+            start = end;
+        }
+        if (count < boundaries.length) {
+            int[] trimmed = new int[count];
+            System.arraycopy(boundaries, 0, trimmed, 0, count);
+            return trimmed;
+        }
+        return boundaries;
+    }
+}
@@ -1,20 +1,38 @@
 package org.wordpress.mobile.ReactNativeGutenbergBridge;
 
 import android.support.annotation.Nullable;
+import android.util.Log;
 
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaSelectedCallback;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModule {
     private final ReactApplicationContext mReactContext;
     private final GutenbergBridgeJS2Parent mGutenbergBridgeJS2Parent;
+    private final HtmlTransfers mHtmlTransfers;
+
+    // Content JS is sending in chunks, only one transfer at a time since JS sends the chunks back to back
+    private int mIncomingTransferId;
+    private int mIncomingNextSeq;
+    private @Nullable StringBuilder mIncomingHtml;
+
+    private static final String TAG = "GutenbergBridge";
 
     private static final String EVENT_NAME_REQUEST_GET_HTML = "requestGetHtml";
     private static final String EVENT_NAME_UPDATE_HTML = "updateHtml";
@@ -25,6 +43,8 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
 
     private static final String MAP_KEY_UPDATE_HTML = "html";
     private static final String MAP_KEY_UPDATE_TITLE = "title";
+    private static final String MAP_KEY_TRANSFER_ID = "transferId";
+    private static final String MAP_KEY_TRANSFER_TOTAL = "total";
     private static final String MAP_KEY_MEDIA_FILE_UPLOAD_STATE = "state";
     private static final String MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_ID = "mediaId";
     private static final String MAP_KEY_MEDIA_FILE_UPLOAD_MEDIA_URL = "mediaUrl";
@@ -44,10 +64,17 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
 
 
     public RNReactNativeGutenbergBridgeModule(ReactApplicationContext reactContext,
-            GutenbergBridgeJS2Parent gutenbergBridgeJS2Parent) {
+            GutenbergBridgeJS2Parent gutenbergBridgeJS2Parent, HtmlTransfers htmlTransfers) {
         super(reactContext);
         mReactContext = reactContext;
         mGutenbergBridgeJS2Parent = gutenbergBridgeJS2Parent;
+        mHtmlTransfers = htmlTransfers;
+    }
+
+    @Override
+    public void onCatalystInstanceDestroy() {
+        mHtmlTransfers.clear();
+        mIncomingHtml = null;
     }
 
     @Override
@@ -65,7 +92,14 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
 
     public void setHtmlInJS(String html) {
         WritableMap writableMap = new WritableNativeMap();
-        writableMap.putString(MAP_KEY_UPDATE_HTML, html);
+        if (HtmlTransfers.shouldChunk(html)) {
+            // JS pulls it with requestHtmlChunk
+            HtmlTransfers.Transfer transfer = mHtmlTransfers.create(html);
+            writableMap.putInt(MAP_KEY_TRANSFER_ID, transfer.id);
+            writableMap.putInt(MAP_KEY_TRANSFER_TOTAL, transfer.getChunkCount());
+        } else {
+            writableMap.putString(MAP_KEY_UPDATE_HTML, html);
+        }
         emitToJS(EVENT_NAME_UPDATE_HTML, writableMap);
     }
 
@@ -92,6 +126,73 @@ public class RNReactNativeGutenbergBridgeModule extends ReactContextBaseJavaModu
         mGutenbergBridgeJS2Parent.responseHtml(title, html, changed);
     }
 
+    /**
+     * Content over HtmlTransfers.THRESHOLD, sent in chunks in order, then handed over as provideToNative_Html would.
+     *
+     * @param length of the whole content, so it gets reassembled without growing the buffer
+     */
+    @ReactMethod
+    public void provideToNative_HtmlChunk(int transferId, int seq, int total, int length, String chunk, String title,
+                                          boolean changed) {
+        if (seq == 0) {
+            mIncomingTransferId = transferId;
+            mIncomingNextSeq = 0;
+            mIncomingHtml = new StringBuilder(length);
+        }
+        if (mIncomingHtml == null || transferId != mIncomingTransferId || seq != mIncomingNextSeq) {
+            Log.w(TAG, "Dropping the chunk " + seq + " of the transfer " + transferId + ", received out of order");
+            mIncomingHtml = null;
+            return;
+        }
+
+        mIncomingHtml.append(chunk);
+        mIncomingNextSeq++;
+        if (mIncomingNextSeq == total) {
+            String html = mIncomingHtml.toString();
+            mIncomingHtml = null;
+            mGutenbergBridgeJS2Parent.responseHtml(title, html, changed);
+        }
+    }
+
+    @ReactMethod
+    public void requestHtmlChunk(int transferId, int seq, Promise promise) {
+        String chunk = mHtmlTransfers.getChunk(transferId, seq);
+        if (chunk == null) {
+            promise.reject("transfer_failed", "No chunk " + seq + " for the transfer " + transferId);
+        } else {
+            promise.resolve(chunk);
+        }
+    }
+
+    @ReactMethod
+    public void provideToNative_ContentChange(String title, @Nullable ReadableArray blockOrder,
+                                              @Nullable ReadableMap changedBlocks, boolean changed) {
+        List<String> order = null;
+        if (blockOrder != null) {
+            order = new ArrayList<>(blockOrder.size());
+            for (int i = 0; i < blockOrder.size(); i++) {
+                order.add(blockOrder.getString(i));
+            }
+        }
+
+        Map<String, String> blocks = null;
+        if (changedBlocks != null) {
+            blocks = new HashMap<>();
+            ReadableMapKeySetIterator iterator = changedBlocks.keySetIterator();
+            while (iterator.hasNextKey()) {
+                String clientId = iterator.nextKey();
+                blocks.put(clientId, changedBlocks.getString(clientId));
+            }
+        }
+
+        mGutenbergBridgeJS2Parent.contentChanged(title, order, blocks, changed);
+    }
+
+    @ReactMethod
+    public void provideToNative_ContentDirty() {
+        mGutenbergBridgeJS2Parent.contentDirty();
+    }
+
     @ReactMethod
     public void editorDidMount(boolean hasUnsupportedBlocks) {
         mGutenbergBridgeJS2Parent.editorDidMount(hasUnsupportedBlocks);
@@ -12,11 +12,17 @@ import java.util.List;
 public class RNReactNativeGutenbergBridgePackage implements ReactPackage {
     private GutenbergBridgeJS2Parent mGutenbergBridgeJS2Parent;
     private RNReactNativeGutenbergBridgeModule mRNReactNativeGutenbergBridgeModule;
+    // Outlives the module, so content can be handed over before JS starts
+    private final HtmlTransfers mHtmlTransfers = new HtmlTransfers();
 
     public RNReactNativeGutenbergBridgeModule getRNReactNativeGutenbergBridgeModule() {
         return mRNReactNativeGutenbergBridgeModule;
     }
 
+    public HtmlTransfers getHtmlTransfers() {
+        return mHtmlTransfers;
+    }
+
     public RNReactNativeGutenbergBridgePackage(GutenbergBridgeJS2Parent gutenbergBridgeJS2Parent) {
         mGutenbergBridgeJS2Parent = gutenbergBridgeJS2Parent;
     }
@@ -24,7 +30,7 @@ public class RNReactNativeGutenbergBridgePackage implements ReactPackage {
     @Override
     public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
         mRNReactNativeGutenbergBridgeModule = new RNReactNativeGutenbergBridgeModule(reactContext,
-                mGutenbergBridgeJS2Parent);
+                mGutenbergBridgeJS2Parent, mHtmlTransfers);
         return Arrays.<NativeModule>asList(mRNReactNativeGutenbergBridgeModule);
     }
 
@@ -0,0 +1,340 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.mobile.WPAndroidGlue.WPAndroidGlueCode.ContentRequest;
+import org.wordpress.mobile.WPAndroidGlue.WPAndroidGlueCode.ContentSnapshot;
+import org.wordpress.mobile.WPAndroidGlue.WPAndroidGlueCode.OnGetContentListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves the content to app private storage while it gets edited, so it can be recovered if the process dies before
+ * the host got it.
+ *
+ * A snapshot is taken DEBOUNCE_MS after the last change JS signaled, and no later than MAX_LATENCY_MS after the first
+ * change not saved yet. A snapshot is also taken when the editor gets paused. Nothing is read from JS while the content
+ * doesn't change.
+ *
+ * Snapshots are compressed and written on a background thread, to a temporary file renamed over the previous one,
+ * and skipped when the content hash didn't change since the last write. Scheduling happens on the main thread.
+ */
+public class ContentAutosaver {
+    private static final String AUTOSAVE_DIRECTORY = "gutenberg-autosave";
+    private static final String AUTOSAVE_EXTENSION = ".gz";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int FORMAT_VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final long DEBOUNCE_MS = 2000;
+    private static final long MAX_LATENCY_MS = 10000;
+
+    /**
+     * Content saved by a previous editing session.
+     */
+    public static final class AutosavedContent {
+        public final String title;
+        public final String html;
+        // System.currentTimeMillis() when it got saved
+        public final long savedAt;
+
+        AutosavedContent(String title, String html, long savedAt) {
+            this.title = title;
+            this.html = html;
+            this.savedAt = savedAt;
+        }
+    }
+
+    public interface OnAutosavedContentLoadedListener {
+        /**
+         * @param content what a previous session saved, or null if nothing
+         */
+        void onAutosavedContentLoaded(@Nullable AutosavedContent content);
+    }
+
+    private final WPAndroidGlueCode mGlueCode;
+    private final File mFile;
+    private final File mTempFile;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+    // Main thread only
+    private boolean mIsStopped;
+    private long mFirstUnsavedChangeTime;
+    private long mLastSavedVersion = -1;
+    private @Nullable ContentRequest mPendingRequest;
+
+    // Background thread only
+    private @Nullable byte[] mLastWrittenHash;
+
+    private final Runnable mSnapshotRunnable = new Runnable() {
+        @Override
+        public void run() {
+            snapshot();
+        }
+    };
+
+    private final Runnable mContentChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (mIsStopped) {
+                return;
+            }
+            long now = SystemClock.uptimeMillis();
+            if (mFirstUnsavedChangeTime == 0) {
+                mFirstUnsavedChangeTime = now;
+            }
+            long delay = Math.min(DEBOUNCE_MS, mFirstUnsavedChangeTime + MAX_LATENCY_MS - now);
+            mMainHandler.removeCallbacks(mSnapshotRunnable);
+            mMainHandler.postDelayed(mSnapshotRunnable, Math.max(0, delay));
+        }
+    };
+
+    ContentAutosaver(Context context, WPAndroidGlueCode glueCode, String postKey) {
+        mGlueCode = glueCode;
+        File directory = new File(context.getFilesDir(), AUTOSAVE_DIRECTORY);
+        String fileName = getFileName(postKey);
+        mFile = new File(directory, fileName + AUTOSAVE_EXTENSION);
+        mTempFile = new File(directory, fileName + AUTOSAVE_EXTENSION + TEMP_EXTENSION);
+    }
+
+    /**
+     * Distinct post keys get distinct file names, whatever chars they use.
+     */
+    private static String getFileName(String postKey) {
+        byte[] keyBytes = postKey.getBytes(UTF_8);
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(keyBytes));
+        } catch (NoSuchAlgorithmException e) {
+            // Reversible, only longer
+            return toHex(keyBytes);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * JS signaled a change. Safe to call from any thread.
+     */
+    void onContentChanged() {
+        mMainHandler.post(mContentChangedRunnable);
+    }
+
+    void onPause() {
+        // The process may well get killed from now on
+        snapshot();
+    }
+
+    /**
+     * Stops taking snapshots. The writes already scheduled still complete.
+     */
+    void stop() {
+        mIsStopped = true;
+        mMainHandler.removeCallbacks(mSnapshotRunnable);
+        mMainHandler.removeCallbacks(mContentChangedRunnable);
+        if (mPendingRequest != null) {
+            mPendingRequest.cancel();
+            mPendingRequest = null;
+        }
+        mExecutor.shutdown();
+    }
+
+    private void snapshot() {
+        mMainHandler.removeCallbacks(mSnapshotRunnable);
+        if (mIsStopped) {
+            return;
+        }
+        if (mPendingRequest != null && !mPendingRequest.isDone()) {
+            // Try again once the content on its way got handled
+            mMainHandler.postDelayed(mSnapshotRunnable, DEBOUNCE_MS);
+            return;
+        }
+
+        mFirstUnsavedChangeTime = 0;
+        mPendingRequest = mGlueCode.requestContent(new OnGetContentListener() {
+            @Override
+            public void onContentReceived(ContentSnapshot snapshot) {
+                mPendingRequest = null;
+                if (mIsStopped) {
+                    return;
+                }
+                // Nothing worth recovering until the user changed something
+                if (snapshot.changed && snapshot.version != mLastSavedVersion) {
+                    mLastSavedVersion = snapshot.version;
+                    write(snapshot.title, snapshot.html);
+                }
+            }
+
+            @Override
+            public void onGetContentTimeout() {
+                mPendingRequest = null;
+            }
+        });
+    }
+
+    private void write(final String title, final String html) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                byte[] titleBytes = title.getBytes(UTF_8);
+                byte[] htmlBytes = html.getBytes(UTF_8);
+                byte[] hash = hash(titleBytes, htmlBytes);
+                if (hash != null && Arrays.equals(hash, mLastWrittenHash)) {
+                    return;
+                }
+
+                try {
+                    writeFile(titleBytes, htmlBytes);
+                    mLastWrittenHash = hash;
+                } catch (IOException e) {
+                    AppLog.e(AppLog.T.EDITOR, "Failed to autosave the content: " + e.getMessage());
+                    mTempFile.delete();
+                }
+            }
+        });
+    }
+
+    private void writeFile(byte[] titleBytes, byte[] htmlBytes) throws IOException {
+        File directory = mTempFile.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+
+        FileOutputStream fileOutputStream = new FileOutputStream(mTempFile);
+        try {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(gzipOutputStream));
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(System.currentTimeMillis());
+            output.writeInt(titleBytes.length);
+            output.write(titleBytes);
+            output.writeInt(htmlBytes.length);
+            output.write(htmlBytes);
+            output.flush();
+            gzipOutputStream.finish();
+            // Make sure the new content is on disk before it replaces the previous one
+            fileOutputStream.getFD().sync();
+        } finally {
+            fileOutputStream.close();
+        }
+
+        if (!mTempFile.renameTo(mFile)) {
+            throw new IOException("Can't rename " + mTempFile);
+        }
+    }
+
+    private static @Nullable byte[] hash(byte[] titleBytes, byte[] htmlBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(titleBytes);
+            digest.update((byte) 0);
+            digest.update(htmlBytes);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Always write then
+            return null;
+        }
+    }
+
+    /**
+     * Reads what a previous session saved, if anything, on the background thread after the writes already scheduled.
+     * The listener is called on the main thread.
+     */
+    void load(final OnAutosavedContentLoadedListener listener) {
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(listener, readFile());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // already stopped
+            deliver(listener, null);
+        }
+    }
+
+    private void deliver(final OnAutosavedContentLoadedListener listener, final @Nullable AutosavedContent content) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onAutosavedContentLoaded(content);
+            }
+        });
+    }
+
+    private @Nullable AutosavedContent readFile() {
+        if (!mFile.isFile()) {
+            return null;
+        }
+
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(mFile))));
+            if (input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            long savedAt = input.readLong();
+            byte[] titleBytes = new byte[input.readInt()];
+            input.readFully(titleBytes);
+            byte[] htmlBytes = new byte[input.readInt()];
+            input.readFully(htmlBytes);
+            return new AutosavedContent(new String(titleBytes, UTF_8), new String(htmlBytes, UTF_8), savedAt);
+        } catch (IOException | NegativeArraySizeException e) {
+            AppLog.w(AppLog.T.EDITOR, "Ignoring an unreadable autosave: " + e.getMessage());
+            return null;
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    // nothing left to read
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes what got saved, e.g. once the host saved the post itself. The same content won't be saved again.
+     */
+    void discard() {
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    mFile.delete();
+                    mTempFile.delete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // already stopped, the file stays until the next session discards it
+        }
+    }
+}
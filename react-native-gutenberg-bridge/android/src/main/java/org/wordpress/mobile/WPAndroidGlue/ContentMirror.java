@@ -0,0 +1,95 @@
+package org.wordpress.mobile.WPAndroidGlue;
+
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native copy of the block list, kept current by the changes JS streams when the content mirror is enabled,
+ * so the serialized content can be read without a round trip to JS.
+ *
+ * Not thread safe, callers are expected to hold the lock guarding the rest of the content.
+ */
+class ContentMirror {
+    // Same separator serialize() puts between the blocks on the JS side
+    private static final String BLOCK_SEPARATOR = "\n\n";
+
+    private final List<String> mBlockOrder = new ArrayList<>();
+    private Map<String, String> mBlocks = new HashMap<>();
+    // Joined lazily, on the first read after a change
+    private @Nullable String mHtml;
+    private boolean mIsStale = true;
+
+    /**
+     * @param blockOrder client ids of the top level blocks, in order, or null if the blocks can't be mirrored
+     *                   at the moment (e.g. while editing in HTML mode)
+     * @param changedBlocks serialized blocks, by client id, that changed since the previous call
+     * @return true if the serialized content changed
+     */
+    boolean apply(@Nullable List<String> blockOrder, @Nullable Map<String, String> changedBlocks) {
+        if (blockOrder == null) {
+            mIsStale = true;
+            return false;
+        }
+
+        boolean changed = !mBlockOrder.equals(blockOrder);
+        Map<String, String> blocks = new HashMap<>(blockOrder.size());
+        for (String clientId : blockOrder) {
+            String html = changedBlocks != null ? changedBlocks.get(clientId) : null;
+            if (html == null) {
+                html = mBlocks.get(clientId);
+            } else if (!TextUtils.equals(html, mBlocks.get(clientId))) {
+                changed = true;
+            }
+            if (html == null) {
+                // A block we never got, only a later push can tell what the content is
+                mIsStale = true;
+                return false;
+            }
+            blocks.put(clientId, html);
+        }
+
+        // Only the blocks still in the list are kept around
+        mBlocks = blocks;
+        mBlockOrder.clear();
+        mBlockOrder.addAll(blockOrder);
+        if (changed) {
+            mHtml = null;
+        }
+        mIsStale = false;
+        return changed;
+    }
+
+    /**
+     * The content got changed on the native side, what got mirrored is stale until JS pushes the next change.
+     */
+    void invalidate() {
+        mIsStale = true;
+    }
+
+    boolean isAvailable() {
+        return !mIsStale;
+    }
+
+    String getHtml() {
+        if (mHtml == null) {
+            int length = 0;
+            for (String clientId : mBlockOrder) {
+                length += mBlocks.get(clientId).length() + BLOCK_SEPARATOR.length();
+            }
+            StringBuilder html = new StringBuilder(length);
+            for (int i = 0; i < mBlockOrder.size(); i++) {
+                if (i > 0) {
+                    html.append(BLOCK_SEPARATOR);
+                }
+                html.append(mBlocks.get(mBlockOrder.get(i)));
+            }
+            mHtml = html.toString();
+        }
+        return mHtml;
+    }
+}
@@ -7,6 +7,8 @@ import android.content.MutableContextWrapper;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
 import android.support.v4.app.Fragment;
 import android.text.TextUtils;
 import android.view.View;
@@ -29,13 +31,17 @@ import com.github.godness84.RNRecyclerViewList.RNRecyclerviewListPackage;
 import com.horcrux.svg.SvgPackage;
 
 import org.wordpress.android.util.AppLog;
+import org.wordpress.mobile.WPAndroidGlue.ContentAutosaver.OnAutosavedContentLoadedListener;
+import org.wordpress.mobile.ReactNativeAztec.ReactAztecManager;
 import org.wordpress.mobile.ReactNativeAztec.ReactAztecPackage;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaSelectedCallback;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.GutenbergBridgeJS2Parent.MediaUploadCallback;
+import org.wordpress.mobile.ReactNativeGutenbergBridge.HtmlTransfers;
 import org.wordpress.mobile.ReactNativeGutenbergBridge.RNReactNativeGutenbergBridgePackage;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -68,15 +74,38 @@ public class WPAndroidGlueCode {
     private boolean mTitleInitialized;
     private boolean mContentChanged;
     private boolean mShouldUpdateContent;
-    private CountDownLatch mGetContentCountDownLatch;
+    // Transfer of the initial content the props refer to, 0 if it fit in the props
+    private int mInitialDataTransferId;
+    // Guards the content and title received from JS, and the requests waiting for them
+    private final Object mContentLock = new Object();
+    private final List<ContentRequest> mPendingContentRequests = new ArrayList<>();
+    // Bumped whenever the title or content known on this side changes, see ContentSnapshot
+    private long mContentVersion = 0;
+    // Last response of JS, serves the reads made at the same version until JS or this side changes the content
+    private @Nullable ContentSnapshot mLastContentSnapshot;
+    // Only one request to JS at a time, the requests made meanwhile share its response
+    private boolean mIsContentRequestInFlight;
+    private long mContentRequestTime;
+    // Content version the request in flight was made at, its response is stale if the content changed since then
+    private long mContentRequestVersion;
+    // Streamed by JS when enabled, lets the content be read without asking JS
+    private boolean mIsContentMirrorEnabled;
+    private final ContentMirror mContentMirror = new ContentMirror();
+    private @Nullable ContentAutosaver mContentAutosaver;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
     private WeakReference<View> mLastFocusedView = null;
 
     private static final String PROP_NAME_INITIAL_DATA = "initialData";
+    private static final String PROP_NAME_INITIAL_DATA_TRANSFER_ID = "initialDataTransferId";
+    private static final String PROP_NAME_INITIAL_DATA_TRANSFER_TOTAL = "initialDataTransferTotal";
     private static final String PROP_NAME_INITIAL_TITLE = "initialTitle";
     private static final String PROP_NAME_INITIAL_HTML_MODE_ENABLED = "initialHtmlModeEnabled";
+    private static final String PROP_NAME_STREAM_CONTENT_CHANGES = "streamContentChanges";
     private static final String PROP_NAME_LOCALE = "locale";
     private static final String PROP_NAME_TRANSLATIONS = "translations";
 
+    private static final long GET_CONTENT_TIMEOUT_MS = 10000;
+
     private static OkHttpHeaderInterceptor sAddCookiesInterceptor = new OkHttpHeaderInterceptor();
     private static OkHttpClient sOkHttpClient = new OkHttpClient.Builder().addInterceptor(sAddCookiesInterceptor).build();
 
@@ -121,12 +150,58 @@ public class WPAndroidGlueCode {
         mRnReactNativeGutenbergBridgePackage = new RNReactNativeGutenbergBridgePackage(new GutenbergBridgeJS2Parent() {
             @Override
             public void responseHtml(String title, String html, boolean changed) {
-                mContentHtml = html;
-                mTitle = title;
-                // This code is called twice. When getTitle and getContent are called.
-                // Make sure mContentChanged has the correct value (true) if one of the call returned with changes.
-                mContentChanged = mContentChanged || changed;
-                mGetContentCountDownLatch.countDown();
+                List<ContentRequest> requests;
+                ContentSnapshot snapshot;
+                synchronized (mContentLock) {
+                    // the text got edited while JS was serializing, the response might not have the edit
+                    boolean isCurrent = mContentVersion == mContentRequestVersion;
+                    if (!TextUtils.equals(html, mContentHtml) || !TextUtils.equals(title, mTitle)) {
+                        mContentVersion++;
+                    }
+                    mContentHtml = html;
+                    mTitle = title;
+                    // Make sure mContentChanged keeps the correct value (true) if a previous response had changes.
+                    mContentChanged = mContentChanged || changed;
+                    snapshot = new ContentSnapshot(title, html, mContentChanged, mContentVersion);
+                    mLastContentSnapshot = isCurrent ? snapshot : null;
+                    mIsContentRequestInFlight = false;
+                    requests = new ArrayList<>(mPendingContentRequests);
+                    mPendingContentRequests.clear();
+                }
+                for (ContentRequest request : requests) {
+                    request.complete(snapshot);
+                }
+            }
+
+            @Override
+            public void contentChanged(String title, List<String> blockOrder, Map<String, String> changedBlocks,
+                                       boolean changed) {
+                synchronized (mContentLock) {
+                    if (!mIsContentMirrorEnabled) {
+                        return;
+                    }
+                    boolean contentChanged = mContentMirror.apply(blockOrder, changedBlocks);
+                    if (contentChanged || !TextUtils.equals(title, mTitle)) {
+                        mContentVersion++;
+                    }
+                    mTitle = title;
+                    mContentChanged = mContentChanged || changed;
+                }
+                if (mContentAutosaver != null) {
+                    mContentAutosaver.onContentChanged();
+                }
+            }
+
+            @Override
+            public void contentDirty() {
+                synchronized (mContentLock) {
+                    // Requests go to JS until the change gets streamed, JS streams it right away once asked
+                    mContentMirror.invalidate();
+                    mLastContentSnapshot = null;
+                }
+                if (mContentAutosaver != null) {
+                    mContentAutosaver.onContentChanged();
+                }
             }
 
             @Override
@@ -206,7 +281,13 @@ public class WPAndroidGlueCode {
         return Arrays.asList(
                 new MainReactPackage(getMainPackageConfig(getImagePipelineConfig(sOkHttpClient))),
                 new SvgPackage(),
-                new ReactAztecPackage(),
+                new ReactAztecPackage(0, new ReactAztecManager.OnTextChangeListener() {
+                    @Override
+                    public void onTextChange() {
+                        // Right away, the contentDirty message of JS only comes after a trip over the bridge
+                        invalidateContentSnapshot();
+                    }
+                }),
                 new RNRecyclerviewListPackage(),
                 mRnReactNativeGutenbergBridgePackage);
     }
@@ -223,6 +304,21 @@ public class WPAndroidGlueCode {
     public void onCreateView(Context initContext, boolean htmlModeEnabled,
                              Application application, boolean isDebug, boolean buildGutenbergFromSource,
                              boolean isNewPost, String localeString, Bundle translations) {
+        onCreateView(initContext, htmlModeEnabled, application, isDebug, buildGutenbergFromSource, isNewPost,
+                localeString, translations, false);
+    }
+
+    /**
+     * @param streamContentChanges true to have JS push the block changes as they happen, so the content can be
+     *                             read from the native mirror instead of asking JS for it
+     */
+    public void onCreateView(Context initContext, boolean htmlModeEnabled,
+                             Application application, boolean isDebug, boolean buildGutenbergFromSource,
+                             boolean isNewPost, String localeString, Bundle translations,
+                             boolean streamContentChanges) {
+        synchronized (mContentLock) {
+            mIsContentMirrorEnabled = streamContentChanges;
+        }
         mReactRootView = new ReactRootView(new MutableContextWrapper(initContext));
 
         ReactInstanceManagerBuilder builder =
@@ -249,6 +345,7 @@ public class WPAndroidGlueCode {
         initialProps.putString(PROP_NAME_INITIAL_DATA, "");
         initialProps.putString(PROP_NAME_INITIAL_TITLE, "");
         initialProps.putBoolean(PROP_NAME_INITIAL_HTML_MODE_ENABLED, htmlModeEnabled);
+        initialProps.putBoolean(PROP_NAME_STREAM_CONTENT_CHANGES, streamContentChanges);
         initialProps.putString(PROP_NAME_LOCALE, localeString);
         initialProps.putBundle(PROP_NAME_TRANSLATIONS, translations);
 
@@ -304,6 +401,9 @@ public class WPAndroidGlueCode {
 
             mReactInstanceManager.onHostPause(activity);
         }
+        if (mContentAutosaver != null) {
+            mContentAutosaver.onPause();
+        }
     }
 
     public void onResume(final Fragment fragment, final Activity activity) {
@@ -321,6 +421,14 @@ public class WPAndroidGlueCode {
     }
 
     public void onDestroy(Activity activity) {
+        if (mContentAutosaver != null) {
+            mContentAutosaver.stop();
+            mContentAutosaver = null;
+        }
+        if (mInitialDataTransferId != 0) {
+            mRnReactNativeGutenbergBridgePackage.getHtmlTransfers().release(mInitialDataTransferId);
+            mInitialDataTransferId = 0;
+        }
         if (mReactRootView != null) {
             mReactRootView.unmountReactApplication();
             mReactRootView = null;
@@ -336,6 +444,41 @@ public class WPAndroidGlueCode {
         }
     }
 
+    /**
+     * Save the content to app private storage while it gets edited, see {@link ContentAutosaver}. Meant to be called
+     * from the host's onCreateView, followed by {@link #loadAutosavedContent} to recover what a previous session of
+     * the same post left, if the process died before the host got the content.
+     *
+     * @param postKey identifies the post across sessions, e.g. its local id
+     */
+    public void enableAutosave(Context context, String postKey) {
+        if (mContentAutosaver != null) {
+            mContentAutosaver.stop();
+        }
+        mContentAutosaver = new ContentAutosaver(context.getApplicationContext(), this, postKey);
+    }
+
+    /**
+     * Reads what a previous session autosaved from disk, off the main thread. The listener is called on the main
+     * thread, with null if nothing got saved or autosave isn't enabled.
+     */
+    public void loadAutosavedContent(OnAutosavedContentLoadedListener listener) {
+        if (mContentAutosaver != null) {
+            mContentAutosaver.load(listener);
+        } else {
+            listener.onAutosavedContentLoaded(null);
+        }
+    }
+
+    /**
+     * Call once the host saved the post, or the user chose not to recover the autosaved content.
+     */
+    public void discardAutosavedContent() {
+        if (mContentAutosaver != null) {
+            mContentAutosaver.discard();
+        }
+    }
+
     public void showDevOptionsDialog() {
         mReactInstanceManager.showDevOptionsDialog();
     }
@@ -345,20 +488,32 @@ public class WPAndroidGlueCode {
     }
 
     public void appendNewImageBlock(int mediaId, String mediaUri) {
+        invalidateContentSnapshot();
         mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule()
                                             .appendNewImageBlock(mediaId, mediaUri);
     }
 
     public void setTitle(String title) {
-        mTitleInitialized = true;
-        mTitle = title;
-        setContent(mTitle, mContentHtml);
+        String contentHtml;
+        synchronized (mContentLock) {
+            // along with the invalidation, so no read gets the new version with the old title
+            invalidateContentSnapshot();
+            mTitleInitialized = true;
+            mTitle = title;
+            contentHtml = mContentHtml;
+        }
+        setContent(title, contentHtml);
     }
 
     public void setContent(String postContent) {
-        mContentInitialized = true;
-        mContentHtml = postContent;
-        setContent(mTitle, mContentHtml);
+        String title;
+        synchronized (mContentLock) {
+            invalidateContentSnapshot();
+            mContentInitialized = true;
+            mContentHtml = postContent;
+            title = mTitle;
+        }
+        setContent(title, postContent);
     }
 
     public boolean hasReceivedInitialTitleAndContent() {
@@ -393,7 +548,17 @@ public class WPAndroidGlueCode {
             appProps = new Bundle();
         }
         if (content != null) {
-            appProps.putString(PROP_NAME_INITIAL_DATA, content);
+            if (HtmlTransfers.shouldChunk(content)) {
+                // Too large for the props, JS pulls it in chunks before setting up the editor, again after a reload
+                HtmlTransfers.Transfer transfer =
+                        mRnReactNativeGutenbergBridgePackage.getHtmlTransfers().createRetained(content);
+                mInitialDataTransferId = transfer.id;
+                appProps.putString(PROP_NAME_INITIAL_DATA, "");
+                appProps.putInt(PROP_NAME_INITIAL_DATA_TRANSFER_ID, transfer.id);
+                appProps.putInt(PROP_NAME_INITIAL_DATA_TRANSFER_TOTAL, transfer.getChunkCount());
+            } else {
+                appProps.putString(PROP_NAME_INITIAL_DATA, content);
+            }
             mContentHtml = content;
         }
         if (title != null) {
@@ -424,19 +589,213 @@ public class WPAndroidGlueCode {
         void onGetContentTimeout(InterruptedException ie);
     }
 
-    public CharSequence getContent(CharSequence originalContent, OnGetContentTimeout onGetContentTimeout) {
-        if (mReactContext != null) {
-            mGetContentCountDownLatch = new CountDownLatch(1);
+    public interface OnGetContentListener {
+        void onContentReceived(ContentSnapshot snapshot);
+
+        void onGetContentTimeout();
+    }
+
+    /**
+     * Title and content of the post, as serialized by JS at a given time.
+     */
+    public static final class ContentSnapshot {
+        public final String title;
+        public final String html;
+        // true if the content was changed by the user since it was set
+        public final boolean changed;
+        // Two snapshots with the same version have the same title and content
+        public final long version;
+
+        ContentSnapshot(String title, String html, boolean changed, long version) {
+            this.title = title == null ? "" : title;
+            this.html = html == null ? "" : html;
+            this.changed = changed;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Handle of a content request made with {@link #requestContent(long, OnGetContentListener)}.
+     */
+    public class ContentRequest {
+        private final OnGetContentListener mListener;
+        private final boolean mDeliverOnMainThread;
+        // Guarded by mContentLock
+        private boolean mIsDone = false;
+        private volatile boolean mIsCancelled = false;
 
+        private final Runnable mTimeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                if (finish()) {
+                    AppLog.w(AppLog.T.EDITOR, "Timed out waiting for the content from JS");
+                    mListener.onGetContentTimeout();
+                }
+            }
+        };
+
+        private ContentRequest(OnGetContentListener listener, boolean deliverOnMainThread) {
+            mListener = listener;
+            mDeliverOnMainThread = deliverOnMainThread;
+        }
+
+        /**
+         * The listener won't be called anymore. Safe to call from any thread, and more than once.
+         */
+        public void cancel() {
+            mIsCancelled = true;
+            finish();
+        }
+
+        public boolean isDone() {
+            synchronized (mContentLock) {
+                return mIsDone;
+            }
+        }
+
+        private boolean finish() {
+            synchronized (mContentLock) {
+                if (mIsDone) {
+                    return false;
+                }
+                mIsDone = true;
+                mPendingContentRequests.remove(this);
+            }
+            mMainHandler.removeCallbacks(mTimeoutRunnable);
+            return true;
+        }
+
+        private void complete(final ContentSnapshot snapshot) {
+            if (!finish()) {
+                return;
+            }
+            if (!mDeliverOnMainThread) {
+                mListener.onContentReceived(snapshot);
+                return;
+            }
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mIsCancelled) {
+                        mListener.onContentReceived(snapshot);
+                    }
+                }
+            });
+        }
+    }
+
+    public ContentRequest requestContent(OnGetContentListener listener) {
+        return requestContent(GET_CONTENT_TIMEOUT_MS, listener);
+    }
+
+    /**
+     * Ask JS for the current title and content without blocking the caller. The listener is called on the main
+     * thread, once, with either the content or a timeout, unless the returned request gets cancelled first.
+     * Concurrent requests share a single round trip to JS, and a response serves the requests made after it until
+     * the content changes (e.g. the title then the content read when saving).
+     * With the content mirror enabled, the request is served right away from the mirror while it is up to date.
+     *
+     * @param timeoutMs time to wait for JS, no limit if 0
+     */
+    public ContentRequest requestContent(long timeoutMs, OnGetContentListener listener) {
+        ContentRequest request = new ContentRequest(listener, true);
+        startContentRequest(request, timeoutMs);
+        return request;
+    }
+
+    private void startContentRequest(ContentRequest request, long timeoutMs) {
+        ContentSnapshot snapshot = null;
+        boolean shouldAskJS = false;
+        synchronized (mContentLock) {
+            long now = SystemClock.elapsedRealtime();
+            if (mReactContext == null) {
+                // Nothing to ask, the editor can't have changed what was set
+                snapshot = new ContentSnapshot(mTitle, mContentHtml, mContentChanged, mContentVersion);
+            } else if (mIsContentMirrorEnabled && mContentMirror.isAvailable()) {
+                // Already up to date, as of the last change JS pushed
+                mContentHtml = mContentMirror.getHtml();
+                snapshot = new ContentSnapshot(mTitle, mContentHtml, mContentChanged, mContentVersion);
+            } else if (mLastContentSnapshot != null && mLastContentSnapshot.version == mContentVersion) {
+                snapshot = mLastContentSnapshot;
+            } else {
+                mPendingContentRequests.add(request);
+                // ask again if the request in flight never got a response
+                if (!mIsContentRequestInFlight || now - mContentRequestTime > GET_CONTENT_TIMEOUT_MS) {
+                    mIsContentRequestInFlight = true;
+                    mContentRequestTime = now;
+                    mContentRequestVersion = mContentVersion;
+                    shouldAskJS = true;
+                }
+            }
+        }
+
+        if (snapshot != null) {
+            request.complete(snapshot);
+            return;
+        }
+        if (timeoutMs > 0) {
+            mMainHandler.postDelayed(request.mTimeoutRunnable, timeoutMs);
+        }
+        if (shouldAskJS) {
             mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().getHtmlFromJS();
+        }
+    }
+
+    /**
+     * The title or content got set, or a text got edited, on this side. What JS sent before is stale.
+     */
+    private void invalidateContentSnapshot() {
+        synchronized (mContentLock) {
+            mContentVersion++;
+            mLastContentSnapshot = null;
+            mContentMirror.invalidate();
+        }
+    }
 
-            try {
-                mGetContentCountDownLatch.await(10, TimeUnit.SECONDS);
-            } catch (InterruptedException ie) {
-                onGetContentTimeout.onGetContentTimeout(ie);
+    /**
+     * Blocks the calling thread until JS sent the content, or GET_CONTENT_TIMEOUT_MS went by.
+     *
+     * @return the content received, or null if none came in time
+     */
+    private ContentSnapshot awaitContent(OnGetContentTimeout onGetContentTimeout) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ContentSnapshot[] received = new ContentSnapshot[1];
+        // Completed right on the thread JS responds on, the caller may well be blocking the main thread
+        ContentRequest request = new ContentRequest(new OnGetContentListener() {
+            @Override
+            public void onContentReceived(ContentSnapshot snapshot) {
+                received[0] = snapshot;
+                latch.countDown();
+            }
+
+            @Override
+            public void onGetContentTimeout() {
             }
+        }, false);
+        startContentRequest(request, 0);
 
-            return mContentChanged ? (mContentHtml == null ? "" : mContentHtml) : originalContent;
+        try {
+            if (!latch.await(GET_CONTENT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                request.cancel();
+            }
+        } catch (InterruptedException ie) {
+            request.cancel();
+            onGetContentTimeout.onGetContentTimeout(ie);
+        }
+        // the latch orders the write of the listener before this read
+        return received[0];
+    }
+
+    public CharSequence getContent(CharSequence originalContent, OnGetContentTimeout onGetContentTimeout) {
+        if (mReactContext != null) {
+            ContentSnapshot snapshot = awaitContent(onGetContentTimeout);
+            if (snapshot != null) {
+                return snapshot.changed ? snapshot.html : originalContent;
+            }
+
+            synchronized (mContentLock) {
+                return mContentChanged ? (mContentHtml == null ? "" : mContentHtml) : originalContent;
+            }
         } else {
             // TODO: Add app logging here
         }
@@ -446,17 +805,14 @@ public class WPAndroidGlueCode {
 
     public CharSequence getTitle(OnGetContentTimeout onGetContentTimeout) {
         if (mReactContext != null) {
-            mGetContentCountDownLatch = new CountDownLatch(1);
-
-            mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().getHtmlFromJS();
-
-            try {
-                mGetContentCountDownLatch.await(10, TimeUnit.SECONDS);
-            } catch (InterruptedException ie) {
-                onGetContentTimeout.onGetContentTimeout(ie);
+            ContentSnapshot snapshot = awaitContent(onGetContentTimeout);
+            if (snapshot != null) {
+                return snapshot.title;
             }
 
-            return mTitle == null ? "" : mTitle;
+            synchronized (mContentLock) {
+                return mTitle == null ? "" : mTitle;
+            }
         } else {
             // TODO: Add app logging here
         }
@@ -465,6 +821,7 @@ public class WPAndroidGlueCode {
     }
 
     public void appendMediaFile(int mediaId, final String mediaUrl) {
+        invalidateContentSnapshot();
         if (mPendingMediaSelectedCallback != null && mMediaPickedByUserOnBlock) {
             mMediaPickedByUserOnBlock = false;
             mPendingMediaSelectedCallback.onMediaSelected(mediaId, mediaUrl);
@@ -476,10 +833,15 @@ public class WPAndroidGlueCode {
     }
 
     public void toggleEditorMode() {
+        synchronized (mContentLock) {
+            // The blocks can't be mirrored in HTML mode, and leaving it parses them again
+            mContentMirror.invalidate();
+        }
         mRnReactNativeGutenbergBridgePackage.getRNReactNativeGutenbergBridgeModule().toggleEditorMode();
     }
 
     public void appendUploadMediaFile(final int mediaId, final String mediaUri) {
+       invalidateContentSnapshot();
        if (isMediaUploadCallbackRegistered() && mMediaPickedByUserOnBlock) {
            mMediaPickedByUserOnBlock = false;
            mPendingMediaUploadCallback.onUploadMediaFileSelected(mediaId, mediaUri);
@@ -525,18 +887,21 @@ public class WPAndroidGlueCode {
     }
 
     public void mediaFileUploadFailed(final int mediaId) {
+        invalidateContentSnapshot();
         if (isMediaUploadCallbackRegistered()) {
             mPendingMediaUploadCallback.onMediaFileUploadFailed(mediaId);
         }
     }
 
     public void mediaFileUploadSucceeded(final int mediaId, final String mediaUrl, final int serverMediaId) {
+        invalidateContentSnapshot();
         if (isMediaUploadCallbackRegistered()) {
             mPendingMediaUploadCallback.onMediaFileUploadSucceeded(mediaId, mediaUrl, serverMediaId);
         }
     }
 
     public void clearMediaFileURL(final int mediaId) {
+        invalidateContentSnapshot();
         if (isMediaUploadCallbackRegistered()) {
             mPendingMediaUploadCallback.onUploadMediaFileClear(mediaId);
         }
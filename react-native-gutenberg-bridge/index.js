@@ -10,6 +10,42 @@ const isIOS = Platform.OS === 'ios';
 
 const gutenbergBridgeEvents = new NativeEventEmitter( RNReactNativeGutenbergBridge );
 
+// In chars, larger content goes through the bridge in chunks of this size, on the platforms supporting it
+const HTML_CHUNK_SIZE = 256 * 1024;
+let lastHtmlTransferId = 0;
+let lastUpdateHtmlId = 0;
+
+// Chunk boundaries that never split a surrogate pair, half of it wouldn't make it through the bridge
+function getChunkBoundaries( html ) {
+	const boundaries = [ 0 ];
+	let start = 0;
+	while ( start < html.length ) {
+		let end = Math.min( start + HTML_CHUNK_SIZE, html.length );
+		const lastCharCode = html.charCodeAt( end - 1 );
+		if ( end < html.length && lastCharCode >= 0xD800 && lastCharCode <= 0xDBFF ) {
+			end--;
+		}
+		boundaries.push( end );
+		start = end;
+	}
+	return boundaries;
+}
+
+// Pulls content native kept aside for being too large, one chunk at a time
+export function fetchHtmlTransfer( transferId, total ) {
+	const chunks = [];
+	const fetchChunk = ( seq ) => {
+		if ( seq === total ) {
+			return Promise.resolve( chunks.join( '' ) );
+		}
+		return RNReactNativeGutenbergBridge.requestHtmlChunk( transferId, seq ).then( ( chunk ) => {
+			chunks.push( chunk );
+			return fetchChunk( seq + 1 );
+		} );
+	};
+	return fetchChunk( 0 );
+}
+
 // Console polyfill from react-native
 
 export function nativeLoggingHook( message, logLevel ) {
@@ -27,6 +63,35 @@ export function sendNativeEditorDidLayout() {
 	}
 }
 
+// Tells native the content changed, e.g. to autosave it, or to stop reading its mirror until the change gets streamed
+export function notifyContentDirtyToNative() {
+	if ( RNReactNativeGutenbergBridge.provideToNative_ContentDirty ) {
+		RNReactNativeGutenbergBridge.provideToNative_ContentDirty();
+	}
+}
+
+export function provideContentChangeToNative( title, blockOrder, changedBlocks, hasChanges ) {
+	// Only Android keeps a native mirror of the content for now
+	if ( RNReactNativeGutenbergBridge.provideToNative_ContentChange ) {
+		RNReactNativeGutenbergBridge.provideToNative_ContentChange( title, blockOrder, changedBlocks, hasChanges );
+	}
+}
+
+export function provideHtmlToNative( html, title, hasChanges ) {
+	if ( html.length <= HTML_CHUNK_SIZE || ! RNReactNativeGutenbergBridge.provideToNative_HtmlChunk ) {
+		RNReactNativeGutenbergBridge.provideToNative_Html( html, title, hasChanges );
+		return;
+	}
+
+	const transferId = ++lastHtmlTransferId;
+	const boundaries = getChunkBoundaries( html );
+	const total = boundaries.length - 1;
+	for ( let seq = 0; seq < total; seq++ ) {
+		const chunk = html.substring( boundaries[ seq ], boundaries[ seq + 1 ] );
+		RNReactNativeGutenbergBridge.provideToNative_HtmlChunk( transferId, seq, total, html.length, chunk, title, hasChanges );
+	}
+}
+
 // Register listeners
 
 export function subscribeParentGetHtml( callback ) {
@@ -46,7 +111,23 @@ export function subscribeSetTitle( callback ) {
 }
 
 export function subscribeUpdateHtml( callback ) {
-	return gutenbergBridgeEvents.addListener( 'updateHtml', callback );
+	return gutenbergBridgeEvents.addListener( 'updateHtml', ( payload ) => {
+		const updateHtmlId = ++lastUpdateHtmlId;
+		if ( payload.transferId === undefined ) {
+			callback( payload );
+			return;
+		}
+
+		fetchHtmlTransfer( payload.transferId, payload.total ).then( ( html ) => {
+			// Don't let it override content set after it, while its chunks were on their way
+			if ( updateHtmlId === lastUpdateHtmlId ) {
+				callback( { html } );
+			}
+		} ).catch( ( error ) => {
+			// eslint-disable-next-line no-console
+			console.warn( 'Failed to receive the content from native', error );
+		} );
+	} );
 }
 
 export function subscribeMediaUpload( callback ) {
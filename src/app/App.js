@@ -5,6 +5,7 @@
  * External dependencies
  */
 import React from 'react';
+import { fetchHtmlTransfer } from 'react-native-gutenberg-bridge';
 
 /**
  * Internal dependencies
@@ -14,14 +15,46 @@ import initialHtml from './initial-html';
 
 type PropsType = {
 	initialData: string,
+	// Set instead of initialData when the content was too large for the props, see fetchHtmlTransfer
+	initialDataTransferId?: number,
+	initialDataTransferTotal?: number,
 	initialHtmlModeEnabled: boolean,
 	initialTitle: string,
+	streamContentChanges: boolean,
 };
 
-export default class AppProvider extends React.Component<PropsType> {
+type StateType = {
+	transferredInitialData: ?string,
+};
+
+export default class AppProvider extends React.Component<PropsType, StateType> {
+	state = {
+		transferredInitialData: null,
+	};
+
+	componentDidMount() {
+		const { initialDataTransferId, initialDataTransferTotal } = this.props;
+		if ( initialDataTransferId === undefined || initialDataTransferTotal === undefined ) {
+			return;
+		}
+
+		fetchHtmlTransfer( initialDataTransferId, initialDataTransferTotal ).then( ( html ) => {
+			this.setState( { transferredInitialData: html } );
+		} ).catch( ( error ) => {
+			// eslint-disable-next-line no-console
+			console.warn( 'Failed to receive the initial content from native', error );
+			this.setState( { transferredInitialData: '' } );
+		} );
+	}
+
 	render() {
-		const { initialHtmlModeEnabled } = this.props;
-		let initialData = this.props.initialData;
+		const { initialDataTransferId, initialHtmlModeEnabled, streamContentChanges } = this.props;
+		const { transferredInitialData } = this.state;
+		if ( initialDataTransferId !== undefined && transferredInitialData === null ) {
+			// The editor can only be set up once, with the whole content
+			return null;
+		}
+		let initialData = initialDataTransferId !== undefined ? transferredInitialData : this.props.initialData;
 		let initialTitle = this.props.initialTitle;
 		if ( initialData === undefined ) {
 			initialData = initialHtml;
@@ -33,7 +66,8 @@ export default class AppProvider extends React.Component<PropsType> {
 			<AppContainer
 				initialHtml={ initialData }
 				initialHtmlModeEnabled={ initialHtmlModeEnabled }
-				initialTitle={ initialTitle } />
+				initialTitle={ initialTitle }
+				streamContentChanges={ streamContentChanges } />
 		);
 	}
 }
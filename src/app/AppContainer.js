@@ -7,12 +7,15 @@
 import React from 'react';
 import type { EmitterSubscription } from 'react-native';
 import RNReactNativeGutenbergBridge, {
+	notifyContentDirtyToNative,
+	provideContentChangeToNative,
+	provideHtmlToNative,
 	subscribeParentGetHtml,
 	subscribeParentToggleHTMLMode,
 	subscribeSetTitle,
 	subscribeUpdateHtml,
 } from 'react-native-gutenberg-bridge';
-import { isEmpty } from 'lodash';
+import { debounce, isEmpty } from 'lodash';
 
 /**
  * WordPress dependencies
@@ -47,8 +50,12 @@ type PropsType = {
 	post: ?mixed,
 	getEditedPostContent: () => string,
 	switchMode: string => mixed,
+	streamContentChanges: boolean,
 };
 
+// Delay, since the last edit, before the changed blocks get streamed to native
+const CONTENT_STREAM_DEBOUNCE_MS = 300;
+
 /*
  * This container combines features similar to the following components on Gutenberg:
  * - `gutenberg/packages/editor/src/components/provider/index.js`
@@ -61,6 +68,13 @@ class AppContainer extends React.Component<PropsType> {
 	subscriptionParentToggleHTMLMode: ?EmitterSubscription;
 	subscriptionParentSetTitle: ?EmitterSubscription;
 	subscriptionParentUpdateHtml: ?EmitterSubscription;
+	// Serialized blocks native got last, by client id, along with the block they were serialized from
+	streamedBlocks: ?{ [string]: { block: BlockType, html: string } };
+	streamedBlockOrder: Array<string>;
+	streamedTitle: ?string;
+	// Set from the first change native was told about, until native gets the content again
+	isContentDirty: boolean;
+	streamContentToNativeDebounced: { (): void, cancel: () => void, flush: () => void };
 
 	constructor( props: PropsType ) {
 		super( props );
@@ -80,6 +94,11 @@ class AppContainer extends React.Component<PropsType> {
 		this.lastHtml = serialize( parse( props.initialHtml ) );
 		this.lastTitle = props.initialTitle;
 
+		this.streamedBlocks = null;
+		this.streamedBlockOrder = [];
+		this.isContentDirty = false;
+		this.streamContentToNativeDebounced = debounce( () => this.streamContentToNative(), CONTENT_STREAM_DEBOUNCE_MS );
+
 		if ( props.initialHtmlModeEnabled && props.mode === 'visual' ) {
 			// enable html mode if the initial mode the parent wants it but we're not already in it
 			this.toggleMode();
@@ -117,6 +136,7 @@ class AppContainer extends React.Component<PropsType> {
 		if ( this.subscriptionParentUpdateHtml ) {
 			this.subscriptionParentUpdateHtml.remove();
 		}
+		this.streamContentToNativeDebounced.cancel();
 	}
 
 	serializeToNativeAction() {
@@ -129,12 +149,68 @@ class AppContainer extends React.Component<PropsType> {
 
 		const hasChanges = title !== this.lastTitle || html !== this.lastHtml;
 
-		RNReactNativeGutenbergBridge.provideToNative_Html( html, title, hasChanges );
+		provideHtmlToNative( html, title, hasChanges );
+
+		if ( this.isContentDirty && this.props.streamContentChanges ) {
+			// Streams the pending change now, so the next reads are served by the native mirror again
+			this.streamContentToNativeDebounced.flush();
+		}
+		this.isContentDirty = false;
 
 		this.lastTitle = title;
 		this.lastHtml = html;
 	}
 
+	// Only sends the blocks that changed since the previous call, native joins them back into the post content
+	streamContentToNative() {
+		const { blocks, mode, title } = this.props;
+
+		this.isContentDirty = false;
+
+		if ( mode === 'text' ) {
+			// The blocks only get updated when leaving HTML mode, native has to ask for the content meanwhile
+			provideContentChangeToNative( title, null, null, false );
+			return;
+		}
+
+		const previousBlocks = this.streamedBlocks || {};
+		const streamedBlocks = {};
+		const blockOrder = [];
+		const changedBlocks = {};
+		let hasBlockChanges = blocks.length !== this.streamedBlockOrder.length;
+
+		blocks.forEach( ( block, index ) => {
+			const { clientId } = block;
+			const previous = previousBlocks[ clientId ];
+			// Blocks are immutable in the store, the same object serializes the same
+			const html = previous && previous.block === block ? previous.html : serialize( block );
+			if ( ! previous || previous.html !== html ) {
+				changedBlocks[ clientId ] = html;
+				hasBlockChanges = true;
+			}
+			if ( this.streamedBlockOrder[ index ] !== clientId ) {
+				hasBlockChanges = true;
+			}
+			streamedBlocks[ clientId ] = { block, html };
+			blockOrder.push( clientId );
+		} );
+
+		let hasChanges;
+		if ( this.streamedBlocks ) {
+			hasChanges = hasBlockChanges || title !== this.streamedTitle;
+		} else {
+			// First push, compare with the content native set
+			const html = blockOrder.map( ( clientId ) => streamedBlocks[ clientId ].html ).join( '\n\n' );
+			hasChanges = html !== this.lastHtml || title !== this.lastTitle;
+		}
+
+		provideContentChangeToNative( title, blockOrder, changedBlocks, hasChanges );
+
+		this.streamedBlocks = streamedBlocks;
+		this.streamedBlockOrder = blockOrder;
+		this.streamedTitle = title;
+	}
+
 	updateHtmlAction( html: string = '' ) {
 		const parsed = parse( html );
 		this.props.resetEditorBlocksWithoutUndoLevel( parsed );
@@ -154,6 +230,21 @@ class AppContainer extends React.Component<PropsType> {
 
 			RNReactNativeGutenbergBridge.editorDidMount( hasUnsupportedBlocks );
 		}
+
+		const hasContentChanges = prevProps.isReady && this.props.isReady && (
+			prevProps.blocks !== this.props.blocks ||
+			prevProps.title !== this.props.title ||
+			prevProps.mode !== this.props.mode );
+
+		if ( hasContentChanges && ! this.isContentDirty ) {
+			// Cheap and right away: native autosaves on it, and stops serving what it mirrored until the change is streamed
+			this.isContentDirty = true;
+			notifyContentDirtyToNative();
+		}
+
+		if ( this.props.streamContentChanges && this.props.isReady && ( ! prevProps.isReady || hasContentChanges ) ) {
+			this.streamContentToNativeDebounced();
+		}
 	}
 
 	render() {